@@ -10,6 +10,14 @@ public class Order {
         this.price = price;
     }
 
+    String nickname() {
+        return nickname;
+    }
+
+    int price() {
+        return price;
+    }
+
     @Override
     public String toString() {
         return "Order{" +
@@ -0,0 +1,35 @@
+package ka.chapter2.item3.order;
+
+import ka.chapter2.item7.cache.Codec;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+public class OrderCodec implements Codec<Order> {
+    public static final OrderCodec INSTANCE = new OrderCodec();
+
+    private OrderCodec() {
+    }
+
+    // [price(4byte)] [nickname 길이(4byte)] [nickname(UTF-8)]
+    @Override
+    public int sizeOf(Order order) {
+        return Integer.BYTES + Integer.BYTES + order.nickname().getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    @Override
+    public void encode(Order order, ByteBuffer dst) {
+        byte[] nickname = order.nickname().getBytes(StandardCharsets.UTF_8);
+        dst.putInt(order.price());
+        dst.putInt(nickname.length);
+        dst.put(nickname);
+    }
+
+    @Override
+    public Order decode(ByteBuffer src) {
+        int price = src.getInt();
+        byte[] nickname = new byte[src.getInt()];
+        src.get(nickname);
+        return new Order(new String(nickname, StandardCharsets.UTF_8), price);
+    }
+}
@@ -1,21 +1,47 @@
 package ka.chapter2.item3.order;
 
+import ka.chapter2.item7.log.AppendLog;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 
 public class OrderRepository {
     public static final OrderRepository INSTANCE = new OrderRepository();
     private final List<Order> orderList;
+    // null이면 메모리에만 저장
+    private AppendLog<Order> log;
     private OrderRepository(){
         orderList = new LinkedList<>();
     }
 
-    public void save(Order order) {
+    // 로그 파일에 남은 주문을 순서대로 읽어 들이고, 이후 저장하는 주문은 파일에도 기록
+    // 주문은 덮어쓰지 않으므로 압축할 것이 없음
+    public static OrderRepository open(Path path) throws IOException {
+        OrderRepository repository = new OrderRepository();
+        repository.log = AppendLog.open(path, OrderCodec.INSTANCE, null, repository.orderList::add);
+        return repository;
+    }
+
+    // 로그에 기록한 순서와 목록에 넣은 순서가 같아야 다시 열었을 때도 같은 순서로 읽히므로, 두 단계를 한 번에 하나씩 처리
+    public synchronized void save(Order order) {
+        if (log != null) {
+            log.append(order);
+        }
         orderList.add(order);
     }
 
-    public List<Order> findAllOrder() {
-        return orderList;
+    // 저장 중인 목록을 그대로 넘기지 않고 사본을 반환
+    public synchronized List<Order> findAllOrder() {
+        return new ArrayList<>(orderList);
+    }
+
+    public void close() throws IOException {
+        if (log != null) {
+            log.close();
+        }
     }
 
 }
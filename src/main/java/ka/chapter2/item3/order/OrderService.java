@@ -1,13 +1,29 @@
 package ka.chapter2.item3.order;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.LinkedList;
 import java.util.List;
 
 public class OrderService {
     public static final OrderService INSTANCE = new OrderService();
-    private final OrderRepository repository = OrderRepository.INSTANCE;
+    private OrderRepository repository = OrderRepository.INSTANCE;
     private OrderService(){}
 
+    // 시작할 때 한 번 호출. 로그 파일의 주문으로 저장소를 새로 채우고, 이후 주문은 파일에도 남김
+    public void persistTo(Path path) throws IOException {
+        OrderRepository old = repository;
+        repository = OrderRepository.open(path);
+        old.close();
+    }
+
+    // 파일 없이 메모리에만 저장하던 처음 상태로 되돌림. 테스트가 싱글턴을 다른 테스트에 넘겨주기 전에 씀
+    void detach() throws IOException {
+        OrderRepository old = repository;
+        repository = OrderRepository.INSTANCE;
+        old.close();
+    }
+
     public void makeOrder(String nickname, int price) {
         repository.save(new Order(nickname, price));
     }
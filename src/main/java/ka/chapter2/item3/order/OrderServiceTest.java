@@ -2,6 +2,17 @@ package ka.chapter2.item3.order;
 
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 public class OrderServiceTest {
 
     @Test
@@ -13,4 +24,76 @@ public class OrderServiceTest {
         System.out.println(instance.getOrderList());
 
     }
+
+    @Test
+    void persistenceTest() throws IOException {
+        Path file = Files.createTempFile("orders", ".log");
+        try {
+            OrderRepository repository = OrderRepository.open(file);
+            repository.save(new Order("user1", 10000));
+            repository.save(new Order("유저2", 30000));
+            repository.close();
+
+            // 다시 열어도 저장한 순서대로 남아 있음
+            OrderRepository reopened = OrderRepository.open(file);
+            assertTrue(reopened.findAllOrder().size() == 2);
+            assertTrue(reopened.findAllOrder().get(1).toString().equals("Order{nickname='유저2', price=30000}"));
+            reopened.close();
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void servicePersistenceTest() throws IOException {
+        Path file = Files.createTempFile("orders", ".log");
+        OrderService service = OrderService.INSTANCE;
+        try {
+            service.persistTo(file);
+            service.makeOrder("user1", 10000);
+            service.makeOrder("유저2", 30000);
+
+            // 재시작한 것처럼 같은 파일로 다시 열면 서비스로 넣은 주문이 그대로 남아 있음
+            service.persistTo(file);
+            List<Order> orders = service.getOrderList();
+            assertTrue(orders.size() == 2);
+            assertTrue(orders.get(0).toString().equals("Order{nickname='user1', price=10000}"));
+            assertTrue(orders.get(1).toString().equals("Order{nickname='유저2', price=30000}"));
+        } finally {
+            service.detach();
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void concurrentSaveTest() throws Exception {
+        Path file = Files.createTempFile("orders", ".log");
+        try {
+            OrderRepository repository = OrderRepository.open(file);
+            ExecutorService executor = Executors.newFixedThreadPool(4);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 200; i++) {
+                        repository.save(new Order("user" + thread, i));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            executor.shutdown();
+            List<Order> saved = repository.findAllOrder();
+            repository.close();
+
+            // 다시 읽은 순서가 메모리에 쌓인 순서와 같음
+            OrderRepository reopened = OrderRepository.open(file);
+            assertTrue(saved.size() == 800);
+            assertTrue(reopened.findAllOrder().toString().equals(saved.toString()));
+            reopened.close();
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
 }
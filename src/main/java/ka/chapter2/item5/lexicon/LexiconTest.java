@@ -2,9 +2,25 @@ package ka.chapter2.item5.lexicon;
 
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class LexiconTest {
+    private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
 
     @Test
     void lexiconTest1() {
@@ -22,4 +38,103 @@ public class LexiconTest {
         SpellChecker checker = new SpellChecker(new EnglishLexicon());
         assertTrue(checker.isValid("Apple"));
     }
+
+    @Test
+    void trieLexiconTest() throws IOException {
+        Path file = Files.createTempFile("words", ".txt");
+        try {
+            Files.write(file, List.of("apple", "Apples", "application", "", "사과", "사과나무", "바나나"), StandardCharsets.UTF_8);
+            TrieLexicon lexicon = TrieLexicon.load(file);
+            SpellChecker checker = new SpellChecker(lexicon);
+
+            assertTrue(lexicon.size() == 6);
+            // 대소문자를 구분하지 않음
+            assertTrue(checker.isValid("APPLE"));
+            assertTrue(checker.isValid("apples"));
+            // 접두사만 같은 단어는 없는 단어
+            assertFalse(checker.isValid("app"));
+            assertFalse(checker.isValid("applez"));
+
+            assertTrue(checker.isValid("사과"));
+            assertTrue(checker.isValid("사과나무"));
+            assertFalse(checker.isValid("사"));
+            // 자모로 나뉜(NFD) 한글도 같은 단어로 찾음
+            assertTrue(checker.isValid(Normalizer.normalize("바나나", Normalizer.Form.NFD)));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void trieLexiconBenchmarkTest() {
+        int wordCount = 500_000;
+        Random random = new Random(42);
+        List<String> words = new ArrayList<>();
+        for (int i = 0; i < wordCount; i++) {
+            words.add(randomWord(random));
+        }
+        String[] queries = new String[100_000];
+        for (int i = 0; i < queries.length; i++) {
+            // 절반은 사전에 있는 단어를 대문자로, 절반은 무작위 단어
+            queries[i] = i % 2 == 0 ? words.get(random.nextInt(wordCount)).toUpperCase(Locale.ROOT) : randomWord(random);
+        }
+
+        long startTime = System.nanoTime();
+        TrieLexicon trie = new TrieLexicon(words);
+        long buildTime = System.nanoTime() - startTime;
+        Set<String> hashSet = new HashSet<>(words);
+
+        // JIT 워밍업
+        for (int i = 0; i < 5; i++) {
+            lookupTrie(trie, queries);
+            lookupHashSet(hashSet, queries);
+        }
+
+        long allocated = THREAD_MX_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+        startTime = System.nanoTime();
+        int trieHits = lookupTrie(trie, queries);
+        long trieTime = System.nanoTime() - startTime;
+        long trieBytes = THREAD_MX_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId()) - allocated;
+
+        allocated = THREAD_MX_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+        startTime = System.nanoTime();
+        int hashHits = lookupHashSet(hashSet, queries);
+        long hashTime = System.nanoTime() - startTime;
+        long hashBytes = THREAD_MX_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId()) - allocated;
+
+        System.out.println(trie.size() + " words -> " + trie.stateCount() + " states, " + trie.edgeCount()
+                + " edges (build " + buildTime / 1_000_000 + "ms)");
+        System.out.println("TrieLexicon = " + trieTime / queries.length + "ns/lookup, " + trieBytes / 1024 + "KB allocated");
+        System.out.println("HashSet + toLowerCase = " + hashTime / queries.length + "ns/lookup, " + hashBytes / 1024 + "KB allocated");
+
+        assertTrue(trieHits == hashHits);
+        assertTrue(trieBytes < 1024);
+    }
+
+    private static int lookupTrie(Lexicon lexicon, String[] queries) {
+        int hits = 0;
+        for (String query : queries) {
+            if (lexicon.isContainsWord(query)) hits++;
+        }
+        return hits;
+    }
+
+    private static int lookupHashSet(Set<String> words, String[] queries) {
+        int hits = 0;
+        for (String query : queries) {
+            if (words.contains(query.toLowerCase())) hits++;
+        }
+        return hits;
+    }
+
+    // 영어 단어와 한글 단어를 섞어서 만듦
+    private static String randomWord(Random random) {
+        int length = 3 + random.nextInt(8);
+        StringBuilder sb = new StringBuilder(length);
+        boolean korean = random.nextInt(4) == 0;
+        for (int i = 0; i < length; i++) {
+            sb.append(korean ? (char) (0xAC00 + random.nextInt(300)) : (char) ('a' + random.nextInt(26)));
+        }
+        return sb.toString();
+    }
 }
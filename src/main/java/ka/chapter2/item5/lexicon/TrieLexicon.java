@@ -0,0 +1,196 @@
+package ka.chapter2.item5.lexicon;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class TrieLexicon implements Lexicon {
+    // 트라이에서 뒷부분이 같은 가지를 하나로 합친 최소 DAWG를 평평한 배열에 담음
+    // 상태 s의 간선은 labels/targets의 [first[s], first[s + 1]) 구간에 글자 순으로 들어 있음
+    private final int[] first;
+    private final char[] labels;
+    private final int[] targets;
+    private final BitSet terminal;
+    private final int root;
+    private final int wordCount;
+
+    public TrieLexicon(Collection<String> words) {
+        BuildNode trieRoot = new BuildNode();
+        int count = 0;
+        for (String word : words) {
+            if (trieRoot.insert(fold(word))) {
+                count++;
+            }
+        }
+
+        // 뒤에서부터 같은 모양의 노드를 하나로 합치면서 번호를 매김
+        Map<String, Integer> registry = new HashMap<>();
+        List<BuildNode> states = new ArrayList<>();
+        this.root = minimize(trieRoot, registry, states);
+        this.wordCount = count;
+
+        int edgeCount = 0;
+        for (BuildNode state : states) {
+            edgeCount += state.size;
+        }
+        this.first = new int[states.size() + 1];
+        this.labels = new char[edgeCount];
+        this.targets = new int[edgeCount];
+        this.terminal = new BitSet(states.size());
+        int e = 0;
+        for (int s = 0; s < states.size(); s++) {
+            BuildNode state = states.get(s);
+            first[s] = e;
+            if (state.terminal) {
+                terminal.set(s);
+            }
+            for (int i = 0; i < state.size; i++) {
+                labels[e] = state.labels[i];
+                targets[e] = state.children[i].id;
+                e++;
+            }
+        }
+        first[states.size()] = e;
+    }
+
+    // 한 줄에 한 단어인 UTF-8 단어 목록 파일을 읽음. 빈 줄은 건너뜀
+    public static TrieLexicon load(Path path) throws IOException {
+        List<String> words = new ArrayList<>();
+        for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+            String word = line.strip();
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return new TrieLexicon(words);
+    }
+
+    // 대소문자를 구분하지 않음. toLowerCase로 새 문자열을 만들지 않고 글자마다 바꿔가며 따라감
+    @Override
+    public boolean isContainsWord(String word) {
+        int state = root;
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+            if (c >= 0x1100 && c <= 0x11FF) {
+                // 한글이 완성형이 아닌 자모(ㅅ + ㅏ ...)로 나뉘어 들어온 드문 경우만 정규화해서 다시 찾음
+                return containsNormalized(word);
+            }
+            state = next(state, Character.toLowerCase(c));
+            if (state < 0) {
+                return false;
+            }
+        }
+        return terminal.get(state);
+    }
+
+    public int size() {
+        return wordCount;
+    }
+
+    public int stateCount() {
+        return first.length - 1;
+    }
+
+    public int edgeCount() {
+        return labels.length;
+    }
+
+    private boolean containsNormalized(String word) {
+        String normalized = fold(word);
+        int state = root;
+        for (int i = 0; i < normalized.length() && state >= 0; i++) {
+            state = next(state, normalized.charAt(i));
+        }
+        return state >= 0 && terminal.get(state);
+    }
+
+    private int next(int state, char c) {
+        int lo = first[state], hi = first[state + 1] - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            char label = labels[mid];
+            if (label < c) {
+                lo = mid + 1;
+            } else if (label > c) {
+                hi = mid - 1;
+            } else {
+                return targets[mid];
+            }
+        }
+        return -1;
+    }
+
+    // 사전에 넣을 때와 찾을 때 같은 규칙으로 글자를 맞춤 : 완성형 한글(NFC) + 글자 단위 소문자
+    private static String fold(String word) {
+        String normalized = Normalizer.normalize(word, Normalizer.Form.NFC);
+        char[] chars = normalized.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(chars[i]);
+        }
+        return new String(chars);
+    }
+
+    private static int minimize(BuildNode node, Map<String, Integer> registry, List<BuildNode> states) {
+        StringBuilder signature = new StringBuilder();
+        signature.append(node.terminal ? '1' : '0');
+        for (int i = 0; i < node.size; i++) {
+            int child = minimize(node.children[i], registry, states);
+            node.children[i] = states.get(child);
+            signature.append(node.labels[i]).append(child).append(',');
+        }
+        Integer existing = registry.get(signature.toString());
+        if (existing != null) {
+            return existing;
+        }
+        node.id = states.size();
+        states.add(node);
+        registry.put(signature.toString(), node.id);
+        return node.id;
+    }
+
+    // 만드는 동안만 쓰는 트라이 노드. 간선은 글자 순으로 정렬해서 보관
+    private static class BuildNode {
+        char[] labels = new char[0];
+        BuildNode[] children = new BuildNode[0];
+        int size;
+        boolean terminal;
+        int id = -1;
+
+        boolean insert(String word) {
+            BuildNode node = this;
+            for (int i = 0; i < word.length(); i++) {
+                node = node.child(word.charAt(i));
+            }
+            boolean added = !node.terminal;
+            node.terminal = true;
+            return added;
+        }
+
+        BuildNode child(char c) {
+            int i = Arrays.binarySearch(labels, 0, size, c);
+            if (i >= 0) {
+                return children[i];
+            }
+            i = -i - 1;
+            if (size == labels.length) {
+                labels = Arrays.copyOf(labels, Math.max(2, size * 2));
+                children = Arrays.copyOf(children, Math.max(2, size * 2));
+            }
+            System.arraycopy(labels, i, labels, i + 1, size - i);
+            System.arraycopy(children, i, children, i + 1, size - i);
+            labels[i] = c;
+            children[i] = new BuildNode();
+            size++;
+            return children[i];
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package ka.chapter2.item6.pattern;
+
+import ka.chapter2.item7.cache.LatencyHistogram;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class PatternRegistry {
+    public static final PatternRegistry INSTANCE = new PatternRegistry(256);
+
+    private final int maximumSize;
+    // 플래그가 없으면 regex 문자열 자체를, 있으면 Key를 키로 씀. 흔한 경우인 플래그 없는 조회는 아무것도 할당하지 않음
+    // 조회는 잠그지 않고, 새 패턴을 넣어 크기를 넘었을 때만 가장 오래 쓰이지 않은 패턴을 골라 내보냄
+    // 내보낸 패턴의 측정값도 함께 사라짐
+    private final ConcurrentHashMap<Object, CompiledPattern> patterns = new ConcurrentHashMap<>();
+    private final Object evictionLock = new Object();
+    // 새 패턴이 들어올 때마다 1씩 늘어나는 시계. 패턴이 마지막으로 쓰인 때를 이 값으로 남김
+    private final AtomicLong epoch = new AtomicLong();
+    // 스레드마다 패턴별 Matcher 하나. 키를 약하게 잡으므로 내보낸 패턴의 Matcher는 GC 뒤에 각 스레드의 맵에서도 빠짐
+    private final ThreadLocal<Map<CompiledPattern, Matcher>> matchers = ThreadLocal.withInitial(WeakHashMap::new);
+
+    public PatternRegistry(int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize must be positive");
+        }
+        this.maximumSize = maximumSize;
+    }
+
+    public Pattern compile(String regex) {
+        return compile(regex, 0);
+    }
+
+    public Pattern compile(String regex, int flags) {
+        return get(regex, flags).pattern;
+    }
+
+    // String.matches와 같지만, 패턴을 매번 컴파일하지 않고 스레드마다 Matcher 하나를 재사용함
+    public boolean matches(String regex, CharSequence input) {
+        return matches(regex, 0, input);
+    }
+
+    public boolean matches(String regex, int flags, CharSequence input) {
+        CompiledPattern compiled = get(regex, flags);
+        Matcher matcher = matcherOf(compiled).reset(input);
+        long startTime = System.nanoTime();
+        try {
+            return matcher.matches();
+        } finally {
+            compiled.record(System.nanoTime() - startTime);
+            // 입력 문자열을 붙잡고 있지 않도록 비워둠
+            matcher.reset("");
+        }
+    }
+
+    public boolean find(String regex, CharSequence input) {
+        return find(regex, 0, input);
+    }
+
+    public boolean find(String regex, int flags, CharSequence input) {
+        CompiledPattern compiled = get(regex, flags);
+        Matcher matcher = matcherOf(compiled).reset(input);
+        long startTime = System.nanoTime();
+        try {
+            return matcher.find();
+        } finally {
+            compiled.record(System.nanoTime() - startTime);
+            matcher.reset("");
+        }
+    }
+
+    public int size() {
+        return patterns.size();
+    }
+
+    // 가장 오래 걸린 매칭 시간 순으로 n개. 역추적이 폭발하는 패턴을 찾을 때 씀
+    public List<Stats> slowest(int n) {
+        List<Stats> stats = stats();
+        stats.sort(Comparator.comparingLong(Stats::maxNanos).reversed());
+        return stats.subList(0, Math.min(n, stats.size()));
+    }
+
+    public List<Stats> stats() {
+        List<CompiledPattern> snapshot = new ArrayList<>(patterns.values());
+        List<Stats> stats = new ArrayList<>(snapshot.size());
+        for (CompiledPattern compiled : snapshot) {
+            stats.add(compiled.stats());
+        }
+        return stats;
+    }
+
+    private CompiledPattern get(String regex, int flags) {
+        Object key = flags == 0 ? Objects.requireNonNull(regex) : new Key(regex, flags);
+        CompiledPattern compiled = patterns.get(key);
+        if (compiled == null) {
+            compiled = patterns.computeIfAbsent(key, k -> new CompiledPattern(Pattern.compile(regex, flags), epoch.getAndIncrement()));
+            if (patterns.size() > maximumSize) {
+                evict(compiled);
+            }
+            return compiled;
+        }
+        // 순서를 옮기지 않고 마지막으로 쓰인 시계 값만 남김. 마지막 삽입 이후 처음 쓸 때만 쓰므로,
+        // 새 패턴이 들어오지 않는 동안에는 자주 쓰는 패턴이라도 여러 스레드가 같은 필드에 쓰지 않음
+        long now = epoch.get();
+        if (compiled.lastUsed != now) {
+            compiled.lastUsed = now;
+        }
+        return compiled;
+    }
+
+    private Matcher matcherOf(CompiledPattern compiled) {
+        Map<CompiledPattern, Matcher> local = matchers.get();
+        Matcher matcher = local.get(compiled);
+        if (matcher == null) {
+            matcher = compiled.pattern.matcher("");
+            local.put(compiled, matcher);
+        }
+        return matcher;
+    }
+
+    // 넣는 쪽에서만 부름. 패턴 수만큼 훑지만 새 패턴을 컴파일하는 비용에 비하면 작음
+    // 가장 오래전에 쓰인 패턴을 내보내되, 방금 넣은 패턴은 남김
+    private void evict(CompiledPattern inserted) {
+        synchronized (evictionLock) {
+            while (patterns.size() > maximumSize) {
+                Map.Entry<Object, CompiledPattern> eldest = null;
+                for (Map.Entry<Object, CompiledPattern> entry : patterns.entrySet()) {
+                    if (entry.getValue() != inserted
+                            && (eldest == null || entry.getValue().lastUsed < eldest.getValue().lastUsed)) {
+                        eldest = entry;
+                    }
+                }
+                if (eldest == null) {
+                    return;
+                }
+                patterns.remove(eldest.getKey(), eldest.getValue());
+                // 다른 스레드의 Matcher는 약한 키가 GC된 뒤에 빠짐
+                matchers.get().remove(eldest.getValue());
+            }
+        }
+    }
+
+    // 이 스레드가 들고 있는 Matcher 수
+    int cachedMatchers() {
+        return matchers.get().size();
+    }
+
+    private static class Key {
+        final String regex;
+        final int flags;
+
+        Key(String regex, int flags) {
+            this.regex = Objects.requireNonNull(regex);
+            this.flags = flags;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return flags == key.flags && regex.equals(key.regex);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * regex.hashCode() + flags;
+        }
+    }
+
+    // equals와 hashCode를 재정의하지 않으므로 스레드별 Matcher 맵에서 객체 자체로 구분됨
+    private static class CompiledPattern {
+        final Pattern pattern;
+        final LatencyHistogram histogram = new LatencyHistogram();
+        final LongAdder matchCount = new LongAdder();
+        final AtomicLong maxNanos = new AtomicLong();
+        volatile long lastUsed;
+
+        CompiledPattern(Pattern pattern, long epoch) {
+            this.pattern = pattern;
+            this.lastUsed = epoch;
+        }
+
+        void record(long nanos) {
+            histogram.record(nanos);
+            matchCount.increment();
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        Stats stats() {
+            return new Stats(pattern.pattern(), pattern.flags(), matchCount.sum(), maxNanos.get(), histogram.snapshot());
+        }
+    }
+
+    public static class Stats {
+        private final String regex;
+        private final int flags;
+        private final long matchCount;
+        private final long maxNanos;
+        private final long[] latencyCounts;
+
+        Stats(String regex, int flags, long matchCount, long maxNanos, long[] latencyCounts) {
+            this.regex = regex;
+            this.flags = flags;
+            this.matchCount = matchCount;
+            this.maxNanos = maxNanos;
+            this.latencyCounts = latencyCounts;
+        }
+
+        public String regex() {
+            return regex;
+        }
+
+        public int flags() {
+            return flags;
+        }
+
+        public long matchCount() {
+            return matchCount;
+        }
+
+        public long maxNanos() {
+            return maxNanos;
+        }
+
+        public long percentileNanos(double percentile) {
+            return LatencyHistogram.percentile(latencyCounts, percentile);
+        }
+
+        @Override
+        public String toString() {
+            return "Stats{" +
+                    "regex='" + regex + '\'' +
+                    ", matchCount=" + matchCount +
+                    ", p50=" + percentileNanos(50) + "ns" +
+                    ", p99=" + percentileNanos(99) + "ns" +
+                    ", max=" + maxNanos + "ns" +
+                    '}';
+        }
+    }
+}
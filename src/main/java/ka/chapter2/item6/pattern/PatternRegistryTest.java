@@ -0,0 +1,196 @@
+package ka.chapter2.item6.pattern;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PatternRegistryTest {
+    private static final String ROMAN = "^(?=.)M*(C[MD]|D?C{0,3})(X[CL]|L?X{0,3})(I[XV]|V?I{0,3})$";
+    private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Test
+    void compileReuseTest() {
+        PatternRegistry registry = new PatternRegistry(8);
+        Pattern pattern = registry.compile(ROMAN);
+        assertSame(pattern, registry.compile(ROMAN));
+        // 플래그가 다르면 다른 패턴
+        assertNotSame(pattern, registry.compile(ROMAN, Pattern.CASE_INSENSITIVE));
+        assertEquals(2, registry.size());
+
+        assertTrue(registry.matches(ROMAN, "MCMXCIV"));
+        assertFalse(registry.matches(ROMAN, "mcmxciv"));
+        assertTrue(registry.matches(ROMAN, Pattern.CASE_INSENSITIVE, "mcmxciv"));
+        assertTrue(registry.find("X{2}", "MXXI"));
+        assertFalse(registry.matches("X{2}", "MXXI"));
+        assertThrows(IllegalArgumentException.class, () -> new PatternRegistry(0));
+    }
+
+    @Test
+    void evictionTest() {
+        PatternRegistry registry = new PatternRegistry(2);
+        Pattern a = registry.compile("a");
+        registry.compile("b");
+        // a를 다시 쓰면 가장 오래 쓰이지 않은 b가 나감
+        registry.compile("a");
+        registry.compile("c");
+        assertEquals(2, registry.size());
+        assertSame(a, registry.compile("a"));
+        for (PatternRegistry.Stats stats : registry.stats()) {
+            assertFalse(stats.regex().equals("b"));
+        }
+    }
+
+    @Test
+    void concurrentEvictionTest() throws Exception {
+        PatternRegistry registry = new PatternRegistry(4);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                int count = 0;
+                for (int i = 0; i < 10_000; i++) {
+                    // 자주 쓰는 ROMAN 사이사이에 한 번씩만 쓰는 패턴을 섞어 계속 내보내게 함
+                    if (registry.matches(ROMAN, "MMXXIV")) count++;
+                    registry.find("X{" + (thread * 10_000 + i) % 50 + "}", "MXXI");
+                }
+                return count;
+            }));
+        }
+        for (Future<Integer> future : futures) {
+            assertEquals(10_000, (int) future.get());
+        }
+        executor.shutdown();
+        assertTrue(registry.size() <= 4);
+    }
+
+    @Test
+    void evictedMatcherReleaseTest() throws Exception {
+        PatternRegistry registry = new PatternRegistry(1);
+        ExecutorService worker = Executors.newSingleThreadExecutor();
+        try {
+            // 다른 스레드가 쓴 패턴을 이 스레드에서 새 패턴을 넣어 내보냄
+            assertTrue(worker.submit(() -> registry.matches("a", "a")).get());
+            assertEquals(1, (int) worker.submit(registry::cachedMatchers).get());
+            registry.compile("b");
+            assertEquals(0, registry.cachedMatchers());
+
+            // 내보낸 패턴의 Matcher는 GC 뒤에 그 스레드의 맵에서도 빠짐
+            int cached = 1;
+            for (int i = 0; i < 10 && cached > 0; i++) {
+                System.gc();
+                Thread.sleep(10);
+                cached = worker.submit(registry::cachedMatchers).get();
+            }
+            assertEquals(0, cached);
+        } finally {
+            worker.shutdown();
+        }
+    }
+
+    @Test
+    void slowPatternTest() {
+        PatternRegistry registry = new PatternRegistry(8);
+        for (int i = 0; i < 1000; i++) {
+            registry.matches(ROMAN, "MMXXIV");
+        }
+        // (.*a){12} 는 끝에서 맞지 않으면 a 사이를 12개로 나누는 모든 방법을 되짚어 봄
+        // (a+)+b 같은 고전적인 예는 JDK 9부터 반복 그룹을 기억해 두어서 느려지지 않음
+        String slow = "(.*a){12}";
+        registry.matches(slow, "a".repeat(20) + "!");
+
+        List<PatternRegistry.Stats> slowest = registry.slowest(1);
+        System.out.println(slowest.get(0));
+        System.out.println(registry.stats());
+        assertEquals(slow, slowest.get(0).regex());
+        assertEquals(1, slowest.get(0).matchCount());
+        for (PatternRegistry.Stats stats : registry.stats()) {
+            if (stats.regex().equals(ROMAN)) {
+                assertEquals(1000, stats.matchCount());
+                assertTrue(stats.percentileNanos(50) <= stats.percentileNanos(99));
+            }
+        }
+    }
+
+    @Test
+    void registryBenchmarkTest() {
+        String[] inputs = new String[100_000];
+        for (int i = 0; i < inputs.length; i++) {
+            inputs[i] = i % 2 == 0 ? "MCMXCIV" : "MCMXCIVIM";
+        }
+        PatternRegistry registry = new PatternRegistry(8);
+        Pattern pattern = Pattern.compile(ROMAN);
+
+        // JIT 워밍업
+        for (int i = 0; i < 3; i++) {
+            countMatches(inputs);
+            countRegistry(registry, inputs);
+            countPattern(pattern, inputs);
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long allocated = THREAD_MX_BEAN.getThreadAllocatedBytes(threadId);
+        long startTime = System.nanoTime();
+        int matches = countMatches(inputs);
+        long matchesTime = System.nanoTime() - startTime;
+        long matchesBytes = THREAD_MX_BEAN.getThreadAllocatedBytes(threadId) - allocated;
+
+        allocated = THREAD_MX_BEAN.getThreadAllocatedBytes(threadId);
+        startTime = System.nanoTime();
+        int cached = countRegistry(registry, inputs);
+        long registryTime = System.nanoTime() - startTime;
+        long registryBytes = THREAD_MX_BEAN.getThreadAllocatedBytes(threadId) - allocated;
+
+        allocated = THREAD_MX_BEAN.getThreadAllocatedBytes(threadId);
+        startTime = System.nanoTime();
+        int precompiled = countPattern(pattern, inputs);
+        long patternTime = System.nanoTime() - startTime;
+        long patternBytes = THREAD_MX_BEAN.getThreadAllocatedBytes(threadId) - allocated;
+
+        System.out.println("String.matches = " + matchesTime / inputs.length + "ns, " + matchesBytes / inputs.length + "B"
+                + " / PatternRegistry = " + registryTime / inputs.length + "ns, " + registryBytes / inputs.length + "B"
+                + " / Pattern.matcher = " + patternTime / inputs.length + "ns, " + patternBytes / inputs.length + "B");
+        System.out.println(registry.slowest(1));
+        assertTrue(matches == cached && cached == precompiled);
+        // 매번 컴파일하지 않으므로 String.matches보다 적게 할당함
+        assertTrue(registryBytes < matchesBytes);
+    }
+
+    private static int countMatches(String[] inputs) {
+        int count = 0;
+        for (String input : inputs) {
+            if (input.matches(ROMAN)) count++;
+        }
+        return count;
+    }
+
+    private static int countRegistry(PatternRegistry registry, String[] inputs) {
+        int count = 0;
+        for (String input : inputs) {
+            if (registry.matches(ROMAN, input)) count++;
+        }
+        return count;
+    }
+
+    private static int countPattern(Pattern pattern, String[] inputs) {
+        int count = 0;
+        for (String input : inputs) {
+            if (pattern.matcher(input).matches()) count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,124 @@
+package ka.chapter2.item6.roman;
+
+import java.util.Arrays;
+
+public class RomanNumerals {
+    // 정규식 ^(?=.)M*(C[MD]|D?C{0,3})(X[CL]|L?X{0,3})(I[XV]|V?I{0,3})$ 를 손으로 옮긴 상태 기계
+    // 글자를 한 번씩만 읽으면서 검사와 값 계산을 함께 함
+    private static final int MAX = 3999;
+    private static final int START = 0;
+    private static final int THOUSANDS = 1;
+    // 자리(백, 십, 일)마다 상태 9개 : 1~3(one 반복), 4, 9(끝), 5~8(five 뒤 one 반복)
+    private static final int DIGIT_STATES = 9;
+    private static final int STATE_COUNT = 2 + 3 * DIGIT_STATES;
+    private static final int INVALID = -1;
+
+    // 글자 종류 : I V X L C D M, 그 외
+    private static final int CLASS_COUNT = 8;
+    private static final int[][] NEXT = new int[STATE_COUNT][CLASS_COUNT];
+    private static final int[][] ADD = new int[STATE_COUNT][CLASS_COUNT];
+
+    private static final String[] TO_ROMAN = new String[MAX + 1];
+
+    static {
+        for (int[] row : NEXT) {
+            Arrays.fill(row, INVALID);
+        }
+        // 자리별 (one, five, ten) 글자와 단위
+        int[][] digits = {{4, 5, 6, 100}, {2, 3, 4, 10}, {0, 1, 2, 1}};
+
+        NEXT[START][6] = THOUSANDS;
+        ADD[START][6] = 1000;
+        NEXT[THOUSANDS][6] = THOUSANDS;
+        ADD[THOUSANDS][6] = 1000;
+
+        for (int d = 0; d < 3; d++) {
+            int one = digits[d][0], five = digits[d][1], ten = digits[d][2], unit = digits[d][3];
+            int base = 2 + d * DIGIT_STATES;
+            int s1 = base, s2 = base + 1, s3 = base + 2, s4 = base + 3, s9 = base + 4;
+            int s5 = base + 5, s6 = base + 6, s7 = base + 7, s8 = base + 8;
+
+            link(s1, one, s2, unit);
+            link(s2, one, s3, unit);
+            link(s1, five, s4, 3 * unit);   // IV : 1 + 3
+            link(s1, ten, s9, 8 * unit);    // IX : 1 + 8
+            link(s5, one, s6, unit);
+            link(s6, one, s7, unit);
+            link(s7, one, s8, unit);
+
+            // 이 자리보다 큰 자리의 모든 상태(와 시작 상태)에서 이 자리의 one 또는 five로 들어올 수 있음
+            for (int from = 0; from < base; from++) {
+                if (NEXT[from][one] == INVALID) {
+                    link(from, one, s1, unit);
+                }
+                if (NEXT[from][five] == INVALID) {
+                    link(from, five, s5, 5 * unit);
+                }
+            }
+        }
+
+        String[] thousands = {"", "M", "MM", "MMM"};
+        String[] hundreds = {"", "C", "CC", "CCC", "CD", "D", "DC", "DCC", "DCCC", "CM"};
+        String[] tens = {"", "X", "XX", "XXX", "XL", "L", "LX", "LXX", "LXXX", "XC"};
+        String[] ones = {"", "I", "II", "III", "IV", "V", "VI", "VII", "VIII", "IX"};
+        for (int n = 1; n <= MAX; n++) {
+            TO_ROMAN[n] = thousands[n / 1000] + hundreds[n / 100 % 10] + tens[n / 10 % 10] + ones[n % 10];
+        }
+    }
+
+    private RomanNumerals() {
+    }
+
+    private static void link(int from, int charClass, int to, int add) {
+        NEXT[from][charClass] = to;
+        ADD[from][charClass] = add;
+    }
+
+    private static int classOf(char c) {
+        switch (c) {
+            case 'I': return 0;
+            case 'V': return 1;
+            case 'X': return 2;
+            case 'L': return 3;
+            case 'C': return 4;
+            case 'D': return 5;
+            case 'M': return 6;
+            default: return 7;
+        }
+    }
+
+    // 기존 정규식과 같은 결과. 시작 상태가 아닌 모든 상태가 완성된 로마 숫자임
+    public static boolean isValid(CharSequence s) {
+        int state = START;
+        for (int i = 0; i < s.length(); i++) {
+            state = NEXT[state][classOf(s.charAt(i))];
+            if (state == INVALID) {
+                return false;
+            }
+        }
+        return state != START;
+    }
+
+    // 올바른 로마 숫자라면 값을, 아니라면 -1을 반환. M이 너무 많아 int를 넘어도 -1
+    public static int toInt(CharSequence s) {
+        int state = START;
+        long value = 0;
+        for (int i = 0; i < s.length(); i++) {
+            int charClass = classOf(s.charAt(i));
+            value += ADD[state][charClass];
+            state = NEXT[state][charClass];
+            if (state == INVALID || value > Integer.MAX_VALUE) {
+                return -1;
+            }
+        }
+        return state == START ? -1 : (int) value;
+    }
+
+    // 미리 만들어 둔 표에서 꺼내므로 새 문자열을 만들지 않음
+    public static String fromInt(int n) {
+        if (n < 1 || n > MAX) {
+            throw new IllegalArgumentException("n must be between 1 and " + MAX);
+        }
+        return TO_ROMAN[n];
+    }
+}
@@ -5,6 +5,10 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class RomanTest {
@@ -40,4 +44,102 @@ public class RomanTest {
         boolean result = RomanNumeral.isRomanNumeralByPattern("IX");
         assertTrue(result);
     }
+
+    @Test
+    void romanNumeralsTest() {
+        // 길이 5 이하의 모든 조합에서 정규식과 결과가 같음
+        List<String> all = new ArrayList<>();
+        all.add("");
+        for (int length = 1; length <= 5; length++) {
+            for (String prefix : new ArrayList<>(all)) {
+                if (prefix.length() == length - 1) {
+                    for (char c : "IVXLCDMA".toCharArray()) {
+                        all.add(prefix + c);
+                    }
+                }
+            }
+        }
+        for (String s : all) {
+            assertTrue(RomanNumerals.isValid(s) == RomanNumeral.isRomanNumeralByPattern(s));
+            assertTrue((RomanNumerals.toInt(s) >= 0) == RomanNumeral.isRomanNumeralByPattern(s));
+        }
+
+        for (int n = 1; n <= 3999; n++) {
+            assertTrue(RomanNumerals.toInt(RomanNumerals.fromInt(n)) == n);
+        }
+        assertTrue(RomanNumerals.toInt("MCMXCIV") == 1994);
+        assertTrue(RomanNumerals.toInt("MMMM") == 4000);
+        assertTrue(RomanNumerals.toInt("IIII") == -1);
+        assertThrows(IllegalArgumentException.class, () -> RomanNumerals.fromInt(4000));
+    }
+
+    @Test
+    void romanNumeralsBenchmarkTest() {
+        String[] inputs = new String[100_000];
+        for (int i = 0; i < inputs.length; i++) {
+            // 절반은 올바른 로마 숫자, 절반은 끝 글자가 잘못된 문자열
+            String roman = RomanNumerals.fromInt(i % 3999 + 1);
+            inputs[i] = i % 2 == 0 ? roman : roman + "IM";
+        }
+
+        // JIT 워밍업
+        for (int i = 0; i < 3; i++) {
+            countMatches(inputs);
+            countPattern(inputs);
+            countFsm(inputs);
+            sumToInt(inputs);
+        }
+
+        long startTime = System.nanoTime();
+        int matches = countMatches(inputs);
+        long matchesTime = System.nanoTime() - startTime;
+
+        startTime = System.nanoTime();
+        int pattern = countPattern(inputs);
+        long patternTime = System.nanoTime() - startTime;
+
+        startTime = System.nanoTime();
+        int fsm = countFsm(inputs);
+        long fsmTime = System.nanoTime() - startTime;
+
+        startTime = System.nanoTime();
+        long sum = sumToInt(inputs);
+        long toIntTime = System.nanoTime() - startTime;
+
+        System.out.println("String.matches = " + matchesTime / inputs.length + "ns, Pattern = " + patternTime / inputs.length
+                + "ns, RomanNumerals.isValid = " + fsmTime / inputs.length + "ns, toInt = " + toIntTime / inputs.length + "ns (sum " + sum + ")");
+        assertTrue(matches == pattern && pattern == fsm);
+    }
+
+    private static int countMatches(String[] inputs) {
+        int count = 0;
+        for (String input : inputs) {
+            if (RomanNumeral.isRomanNumeral(input)) count++;
+        }
+        return count;
+    }
+
+    private static int countPattern(String[] inputs) {
+        int count = 0;
+        for (String input : inputs) {
+            if (RomanNumeral.isRomanNumeralByPattern(input)) count++;
+        }
+        return count;
+    }
+
+    private static long sumToInt(String[] inputs) {
+        long sum = 0;
+        for (String input : inputs) {
+            sum += RomanNumerals.toInt(input);
+        }
+        return sum;
+    }
+
+    private static int countFsm(String[] inputs) {
+        int count = 0;
+        for (String input : inputs) {
+            if (RomanNumerals.isValid(input)) count++;
+        }
+        return count;
+    }
 }
@@ -0,0 +1,116 @@
+package ka.chapter2.item7.cache;
+
+public class CacheStats {
+    public static final String CSV_HEADER = "hitCount,missCount,hitRate,loadSuccessCount,loadFailureCount," +
+            "averageLoadPenalty,p99LoadLatency,evictionCount,evictionWeight";
+
+    private final long hitCount;
+    private final long missCount;
+    private final long loadSuccessCount;
+    private final long loadFailureCount;
+    private final long totalLoadTime;
+    private final long evictionCount;
+    private final long evictionWeight;
+    private final long[] loadLatencyCounts;
+
+    CacheStats(long hitCount, long missCount, long loadSuccessCount, long loadFailureCount,
+               long totalLoadTime, long evictionCount, long evictionWeight, long[] loadLatencyCounts) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.loadSuccessCount = loadSuccessCount;
+        this.loadFailureCount = loadFailureCount;
+        this.totalLoadTime = totalLoadTime;
+        this.evictionCount = evictionCount;
+        this.evictionWeight = evictionWeight;
+        this.loadLatencyCounts = loadLatencyCounts;
+    }
+
+    public static CacheStats empty() {
+        return new CacheStats(0, 0, 0, 0, 0, 0, 0, new long[LatencyHistogram.BUCKET_COUNT]);
+    }
+
+    public long requestCount() {
+        return hitCount + missCount;
+    }
+
+    public long hitCount() {
+        return hitCount;
+    }
+
+    public double hitRate() {
+        long requestCount = requestCount();
+        return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+    }
+
+    public long missCount() {
+        return missCount;
+    }
+
+    public long loadSuccessCount() {
+        return loadSuccessCount;
+    }
+
+    public long loadFailureCount() {
+        return loadFailureCount;
+    }
+
+    public long totalLoadTime() {
+        return totalLoadTime;
+    }
+
+    public double averageLoadPenalty() {
+        long loadCount = loadSuccessCount + loadFailureCount;
+        return loadCount == 0 ? 0.0 : (double) totalLoadTime / loadCount;
+    }
+
+    public long loadLatencyPercentile(double percentile) {
+        return LatencyHistogram.percentile(loadLatencyCounts, percentile);
+    }
+
+    long[] loadLatencyCounts() {
+        return loadLatencyCounts;
+    }
+
+    public long p99LoadLatency() {
+        return loadLatencyPercentile(99);
+    }
+
+    public long evictionCount() {
+        return evictionCount;
+    }
+
+    public long evictionWeight() {
+        return evictionWeight;
+    }
+
+    public CacheStats plus(CacheStats other) {
+        long[] counts = loadLatencyCounts.clone();
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.loadLatencyCounts[i];
+        }
+        return new CacheStats(hitCount + other.hitCount, missCount + other.missCount,
+                loadSuccessCount + other.loadSuccessCount, loadFailureCount + other.loadFailureCount,
+                totalLoadTime + other.totalLoadTime, evictionCount + other.evictionCount,
+                evictionWeight + other.evictionWeight, counts);
+    }
+
+    public String toCsvRow() {
+        return hitCount + "," + missCount + "," + hitRate() + "," + loadSuccessCount + "," + loadFailureCount + "," +
+                averageLoadPenalty() + "," + p99LoadLatency() + "," + evictionCount + "," + evictionWeight;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStats{" +
+                "hitCount=" + hitCount +
+                ", missCount=" + missCount +
+                ", hitRate=" + hitRate() +
+                ", loadSuccessCount=" + loadSuccessCount +
+                ", loadFailureCount=" + loadFailureCount +
+                ", averageLoadPenalty=" + averageLoadPenalty() +
+                ", p99LoadLatency=" + p99LoadLatency() +
+                ", evictionCount=" + evictionCount +
+                ", evictionWeight=" + evictionWeight +
+                '}';
+    }
+}
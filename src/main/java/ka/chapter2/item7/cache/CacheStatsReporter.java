@@ -0,0 +1,74 @@
+package ka.chapter2.item7.cache;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+public class CacheStatsReporter implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(CacheStatsReporter.class.getName());
+
+    private final Supplier<CacheStats> source;
+    private final Consumer<CacheStats> sink;
+    private final ScheduledExecutorService scheduler;
+
+    private CacheStatsReporter(Supplier<CacheStats> source, Consumer<CacheStats> sink, Duration period) {
+        this.source = source;
+        this.sink = sink;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "cache-stats-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long periodNanos = period.toNanos();
+        scheduler.scheduleAtFixedRate(() -> {
+            // 예외가 밖으로 나가면 이후 주기가 모두 취소되므로 기록만 하고 넘어감
+            try {
+                report();
+            } catch (RuntimeException e) {
+                LOGGER.warning("cache stats report failed: " + e);
+            }
+        }, periodNanos, periodNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public static CacheStatsReporter toLog(String name, Supplier<CacheStats> source, Duration period) {
+        return new CacheStatsReporter(source, stats -> LOGGER.info(name + " " + stats), period);
+    }
+
+    public static CacheStatsReporter toCsv(Path path, Supplier<CacheStats> source, Duration period) {
+        return new CacheStatsReporter(source, stats -> appendCsv(path, stats), period);
+    }
+
+    public void report() {
+        sink.accept(source.get());
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdown();
+    }
+
+    private static void appendCsv(Path path, CacheStats stats) {
+        try {
+            // 파일이 처음 만들어질 때만 헤더를 기록
+            if (Files.notExists(path)) {
+                Files.writeString(path, "timestamp," + CacheStats.CSV_HEADER + System.lineSeparator(),
+                        StandardCharsets.UTF_8, StandardOpenOption.CREATE_NEW);
+            }
+            Files.writeString(path, Instant.now() + "," + stats.toCsvRow() + System.lineSeparator(),
+                    StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package ka.chapter2.item7.cache;
+
+import ka.chapter2.item7.post.PostEntity;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CacheStatsTest {
+    @Test
+    void lruCacheStatsTest() {
+        LRUCache<String, PostEntity> cache = new LRUCache<>(2);
+        cache.put("one", new PostEntity(1, "공지1", "내용1"));
+        cache.put("two", new PostEntity(2, "공지2", "내용2"));
+        cache.get("one");
+        cache.put("three", new PostEntity(3, "공지3", "내용3"));
+        cache.get("two");
+
+        CacheStats stats = cache.stats();
+        assertTrue(stats.hitCount() == 1);
+        assertTrue(stats.missCount() == 1);
+        assertTrue(stats.hitRate() == 0.5);
+        assertTrue(stats.evictionCount() == 1);
+    }
+
+    @Test
+    void concurrentLruCacheStatsTest() {
+        ConcurrentLRUCache<Integer, Integer> cache = new ConcurrentLRUCache<>(64);
+        for (int i = 0; i < 100; i++) {
+            cache.put(i, i);
+        }
+        for (int i = 0; i < 100; i++) {
+            cache.get(i);
+        }
+
+        // 세그먼트별 통계를 합친 결과
+        CacheStats stats = cache.stats();
+        assertTrue(stats.requestCount() == 100);
+        assertTrue(stats.hitCount() == cache.size());
+        assertTrue(stats.evictionCount() == 100 - cache.size());
+    }
+
+    @Test
+    void loadingCacheStatsTest() {
+        LoadingCache<Integer, String> cache = new LoadingCache.Builder<Integer, String>(10, String::valueOf).build();
+        cache.getAll(List.of(1, 2, 3));
+        cache.get(1);
+        cache.get(4);
+
+        CacheStats stats = cache.stats();
+        assertTrue(stats.hitCount() == 1);
+        assertTrue(stats.missCount() == 4);
+        assertTrue(stats.loadSuccessCount() == 2);
+        assertTrue(stats.p99LoadLatency() >= 0);
+        assertTrue(stats.averageLoadPenalty() > 0);
+    }
+
+    @Test
+    void weakHashMapStatsTest() throws InterruptedException {
+        InstrumentedMap<String, String> cache = new InstrumentedMap<>(new WeakHashMap<>());
+        cache.put(new String("key1"), "Value1");
+        cache.get("key1");
+        cache.get("key2");
+
+        // 키를 참조하는 곳이 없으므로 GC 이후 항목이 사라지면 제거 횟수로 집계
+        for (int i = 0; i < 10 && !cache.isEmpty(); i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        int size = cache.size();
+
+        CacheStats stats = cache.stats();
+        System.out.println(stats);
+        assertTrue(stats.hitCount() == 1);
+        assertTrue(stats.missCount() == 1);
+        assertTrue(stats.evictionCount() == 1 - size);
+    }
+
+    @Test
+    void viewRemovalStatsTest() {
+        InstrumentedMap<Integer, String> cache = new InstrumentedMap<>(new HashMap<>());
+        for (int i = 0; i < 6; i++) {
+            cache.put(i, "value" + i);
+        }
+        // 맵이 아니라 뷰를 통해 지운 항목도 제거(eviction)가 아닌 삭제로 집계
+        cache.keySet().remove(0);
+        Iterator<String> values = cache.values().iterator();
+        values.next();
+        values.remove();
+        cache.entrySet().removeIf(e -> e.getKey() == 5);
+        cache.keySet().retainAll(Set.of(2, 3));
+
+        assertTrue(cache.size() == 2);
+        assertTrue(cache.stats().evictionCount() == 0);
+        cache.values().clear();
+        assertTrue(cache.isEmpty());
+        assertTrue(cache.stats().evictionCount() == 0);
+    }
+
+    @Test
+    void latencyPercentileTest() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+
+        // 로그-선형 구간이므로 12.5% 오차 안에서 p99를 구함
+        long p99 = LatencyHistogram.percentile(histogram.snapshot(), 99);
+        assertTrue(p99 >= 990_000 && p99 <= 990_000 * 1.125);
+    }
+
+    @Test
+    void csvReporterTest() throws IOException {
+        Path path = Files.createTempFile("cache-stats", ".csv");
+        Files.delete(path);
+
+        LRUCache<String, String> cache = new LRUCache<>(10);
+        cache.get("missing");
+
+        try (CacheStatsReporter reporter = CacheStatsReporter.toCsv(path, cache::stats, Duration.ofMinutes(1))) {
+            reporter.report();
+            reporter.report();
+        }
+
+        List<String> lines = Files.readAllLines(path);
+        assertTrue(lines.size() == 3);
+        assertTrue(lines.get(0).startsWith("timestamp,hitCount"));
+        Files.delete(path);
+    }
+}
@@ -0,0 +1,12 @@
+package ka.chapter2.item7.cache;
+
+import java.nio.ByteBuffer;
+
+public interface Codec<V> {
+    // 값을 쓰기 전에 필요한 크기를 미리 알아야 알맞은 슬랩을 고를 수 있음
+    int sizeOf(V value);
+
+    void encode(V value, ByteBuffer dst);
+
+    V decode(ByteBuffer src);
+}
@@ -0,0 +1,99 @@
+package ka.chapter2.item7.cache;
+
+public class ConcurrentLRUCache<K, V> {
+    private static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+
+    private final LRUCache<K, V>[] segments;
+    private final int segmentMask;
+    private final int segmentShift;
+    private final int capacity;
+
+    public ConcurrentLRUCache(int capacity) {
+        this(capacity, DEFAULT_CONCURRENCY_LEVEL);
+    }
+
+    @SuppressWarnings("unchecked")
+    public ConcurrentLRUCache(int capacity, int concurrencyLevel) {
+        if (capacity <= 0 || concurrencyLevel <= 0) {
+            throw new IllegalArgumentException();
+        }
+
+        // 세그먼트 수는 2의 거듭제곱으로 맞추고, 용량보다 많아지지 않도록 제한
+        int segmentCount = 1;
+        while (segmentCount < concurrencyLevel && segmentCount * 2 <= capacity) {
+            segmentCount <<= 1;
+        }
+
+        this.capacity = capacity;
+        this.segmentMask = segmentCount - 1;
+        this.segmentShift = 32 - Integer.numberOfTrailingZeros(segmentCount);
+        this.segments = (LRUCache<K, V>[]) new LRUCache<?, ?>[segmentCount];
+
+        // 전체 용량을 세그먼트에 나눠 담아 합계가 capacity와 같도록 분배
+        for (int i = 0; i < segmentCount; i++) {
+            int segmentCapacity = capacity / segmentCount + (i < capacity % segmentCount ? 1 : 0);
+            segments[i] = new LRUCache<>(segmentCapacity);
+        }
+    }
+
+    public V put(K key, V value) {
+        LRUCache<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            return segment.put(key, value);
+        }
+    }
+
+    public V get(Object key) {
+        // 접근 순서 모드의 LinkedHashMap은 get에서도 연결 리스트가 바뀌므로 세그먼트 락이 필요
+        LRUCache<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            return segment.get(key);
+        }
+    }
+
+    // 현재 값이 oldValue일 때만 바꿈
+    public boolean replace(K key, V oldValue, V newValue) {
+        LRUCache<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            return segment.replace(key, oldValue, newValue);
+        }
+    }
+
+    public V remove(Object key) {
+        LRUCache<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            return segment.remove(key);
+        }
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public int size() {
+        int size = 0;
+        for (LRUCache<K, V> segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    public CacheStats stats() {
+        // 각 세그먼트의 LongAdder 합계를 더하기만 하므로 세그먼트 락이 필요 없음
+        CacheStats stats = CacheStats.empty();
+        for (LRUCache<K, V> segment : segments) {
+            stats = stats.plus(segment.stats());
+        }
+        return stats;
+    }
+
+    private LRUCache<K, V> segmentFor(Object key) {
+        // 세그먼트 안의 LinkedHashMap은 하위 비트로 버킷을 고르므로, 세그먼트는 상위 비트로 골라야 버킷이 고르게 쓰임
+        // 작은 정수처럼 상위 비트가 비어 있는 해시도 퍼지도록 황금비 상수를 곱해 섞음
+        int h = key == null ? 0 : key.hashCode();
+        h *= 0x9E3779B9;
+        return segments[(h >>> segmentShift) & segmentMask];
+    }
+}
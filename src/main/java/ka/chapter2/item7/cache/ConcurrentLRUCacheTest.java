@@ -0,0 +1,118 @@
+package ka.chapter2.item7.cache;
+
+import ka.chapter2.item7.post.PostEntity;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ConcurrentLRUCacheTest {
+    private static final int THREADS = 8;
+    private static final int OPERATIONS = 200_000;
+    private static final int KEYS = 10_000;
+
+    @Test
+    void singleSegmentTest() {
+        // 세그먼트가 1개라면 LRUCache와 동일하게 동작
+        ConcurrentLRUCache<String, PostEntity> cache = new ConcurrentLRUCache<>(3, 1);
+
+        cache.put("one", new PostEntity(1, "공지1", "내용1"));
+        cache.put("two", new PostEntity(2, "공지2", "내용2"));
+        cache.put("three", new PostEntity(3, "공지3", "내용3"));
+
+        // 1 사용 -> {two=2, three=3, one=1}
+        cache.get("one");
+
+        // 4 추가 -> {three=3, one=1, four=4}
+        cache.put("four", new PostEntity(4, "공지4", "내용4"));
+
+        assertNull(cache.get("two"));
+        assertTrue(cache.get("one") != null);
+        assertTrue(cache.size() == 3);
+    }
+
+    @Test
+    void capacityTest() {
+        ConcurrentLRUCache<Integer, Integer> cache = new ConcurrentLRUCache<>(100);
+        for (int i = 0; i < 10_000; i++) {
+            cache.put(i, i);
+        }
+
+        assertTrue(cache.capacity() == 100);
+        assertTrue(cache.size() <= cache.capacity());
+    }
+
+    @Test
+    void segmentSpreadTest() {
+        // 상위 비트로 세그먼트를 골라도 연속된 정수 키가 세그먼트에 고르게 퍼져서 거의 다 남음
+        ConcurrentLRUCache<Integer, Integer> cache = new ConcurrentLRUCache<>(1600);
+        for (int i = 0; i < 1600; i++) {
+            cache.put(i, i);
+        }
+        assertTrue(cache.size() >= 1580);
+    }
+
+    @Test
+    void throughputTest() throws InterruptedException {
+        // 전역 락으로 감싼 LRUCache와 세그먼트 락을 사용하는 캐시의 처리량 비교
+        Map<Integer, Integer> lockedCache = Collections.synchronizedMap(new LRUCache<>(KEYS / 2));
+        ConcurrentLRUCache<Integer, Integer> segmentedCache = new ConcurrentLRUCache<>(KEYS / 2);
+
+        Operation locked = key -> {
+            if (lockedCache.get(key) == null) {
+                lockedCache.put(key, key);
+            }
+        };
+        Operation segmented = key -> {
+            if (segmentedCache.get(key) == null) {
+                segmentedCache.put(key, key);
+            }
+        };
+
+        // JIT 워밍업
+        run(locked);
+        run(segmented);
+
+        long lockedTime = run(locked);
+        long segmentedTime = run(segmented);
+
+        System.out.println("synchronized LRUCache = " + opsPerMillis(lockedTime) + " ops/ms");
+        System.out.println("ConcurrentLRUCache = " + opsPerMillis(segmentedTime) + " ops/ms");
+    }
+
+    private static long run(Operation operation) throws InterruptedException {
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            threads.add(new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int j = 0; j < OPERATIONS; j++) {
+                    operation.apply(random.nextInt(KEYS));
+                }
+            }));
+        }
+
+        long startTime = System.nanoTime();
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return System.nanoTime() - startTime;
+    }
+
+    private static long opsPerMillis(long nanoTime) {
+        return (long) THREADS * OPERATIONS * 1_000_000 / nanoTime;
+    }
+
+    @FunctionalInterface
+    private interface Operation {
+        void apply(int key);
+    }
+}
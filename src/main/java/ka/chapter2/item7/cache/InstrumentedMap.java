@@ -0,0 +1,203 @@
+package ka.chapter2.item7.cache;
+
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+public class InstrumentedMap<K, V> implements Map<K, V> {
+    private final Map<K, V> m;
+    private final StatsCounter statsCounter = new StatsCounter();
+    // WeakHashMap처럼 항목이 스스로 사라지는 맵은 (추가 - 삭제 - 현재 크기)로 제거된 수를 계산
+    private final LongAdder insertCount = new LongAdder();
+    private final LongAdder removeCount = new LongAdder();
+
+    public InstrumentedMap(Map<K, V> m) {
+        this.m = m;
+    }
+
+    public CacheStats stats() {
+        long evicted = Math.max(0, insertCount.sum() - removeCount.sum() - m.size());
+        CacheStats stats = statsCounter.snapshot();
+        return new CacheStats(stats.hitCount(), stats.missCount(), stats.loadSuccessCount(),
+                stats.loadFailureCount(), stats.totalLoadTime(), evicted, evicted, new long[LatencyHistogram.BUCKET_COUNT]);
+    }
+
+    @Override
+    public V get(Object key) {
+        V value = m.get(key);
+        if (value != null) {
+            statsCounter.recordHits(1);
+        } else {
+            statsCounter.recordMisses(1);
+        }
+        return value;
+    }
+
+    @Override
+    public V put(K key, V value) {
+        if (!m.containsKey(key)) {
+            insertCount.increment();
+        }
+        return m.put(key, value);
+    }
+
+    @Override
+    public V remove(Object key) {
+        if (m.containsKey(key)) {
+            removeCount.increment();
+        }
+        return m.remove(key);
+    }
+
+    @Override
+    public void putAll(Map<? extends K, ? extends V> map) {
+        map.forEach(this::put);
+    }
+
+    @Override
+    public void clear() {
+        removeCount.add(m.size());
+        m.clear();
+    }
+
+    @Override
+    public int size() {
+        return m.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return m.isEmpty();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return m.containsKey(key);
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        return m.containsValue(value);
+    }
+
+    // 뷰나 그 반복자로 지운 항목도 삭제로 집계해야, stats()가 이를 스스로 사라진 항목(제거)으로 세지 않음
+    @Override
+    public Set<K> keySet() {
+        return new CountingSet<>(m.keySet());
+    }
+
+    @Override
+    public Collection<V> values() {
+        return new CountingCollection<>(m.values());
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return new CountingSet<>(m.entrySet());
+    }
+
+    private <E> Iterator<E> counting(Iterator<E> iterator) {
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public E next() {
+                return iterator.next();
+            }
+
+            @Override
+            public void remove() {
+                iterator.remove();
+                removeCount.increment();
+            }
+        };
+    }
+
+    // removeAll, retainAll, removeIf는 AbstractCollection이 remove나 반복자의 remove로 처리하므로 따로 세지 않아도 됨
+    private final class CountingSet<E> extends AbstractSet<E> {
+        private final Set<E> set;
+
+        CountingSet(Set<E> set) {
+            this.set = set;
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            return counting(set.iterator());
+        }
+
+        @Override
+        public int size() {
+            return set.size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return set.contains(o);
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (set.remove(o)) {
+                removeCount.increment();
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void clear() {
+            InstrumentedMap.this.clear();
+        }
+    }
+
+    private final class CountingCollection<E> extends AbstractCollection<E> {
+        private final Collection<E> collection;
+
+        CountingCollection(Collection<E> collection) {
+            this.collection = collection;
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            return counting(collection.iterator());
+        }
+
+        @Override
+        public int size() {
+            return collection.size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return collection.contains(o);
+        }
+
+        @Override
+        public void clear() {
+            InstrumentedMap.this.clear();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return m.toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return m.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return m.hashCode();
+    }
+}
@@ -5,6 +5,7 @@ import java.util.Map;
 
 public class LRUCache<K, V> extends LinkedHashMap<K, V> {
     private final int capacity;
+    private final StatsCounter statsCounter = new StatsCounter();
 
     public LRUCache(int capacity) {
         // 캐시 크기, 해시 테이블이 사용 중인 공간 비율, 요소에 접근한 순서를 기준으로 정렬
@@ -12,9 +13,28 @@ public class LRUCache<K, V> extends LinkedHashMap<K, V> {
         this.capacity = capacity;
     }
 
+    @Override
+    public V get(Object key) {
+        V value = super.get(key);
+        if (value != null) {
+            statsCounter.recordHits(1);
+        } else {
+            statsCounter.recordMisses(1);
+        }
+        return value;
+    }
+
+    public CacheStats stats() {
+        return statsCounter.snapshot();
+    }
+
     @Override
     protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
-        return size() > capacity;
+        if (size() > capacity) {
+            statsCounter.recordEviction(1);
+            return true;
+        }
+        return false;
     }
 }
 
@@ -0,0 +1,279 @@
+package ka.chapter2.item7.cache;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+public class LoadingCache<K, V> {
+    private static final long DISABLED = -1;
+
+    private final ConcurrentLRUCache<K, Entry<V>> cache;
+    // 키마다 진행 중인 로딩을 하나만 두고, 같은 키를 놓친 스레드들은 이 Future를 함께 기다림
+    private final ConcurrentHashMap<K, CompletableFuture<V>> loading = new ConcurrentHashMap<>();
+
+    private final Function<? super K, ? extends V> loader;
+    private final Function<? super Set<K>, ? extends Map<K, V>> bulkLoader;
+    private final long refreshAfterWriteNanos;
+    private final Executor executor;
+    private final LongSupplier ticker;
+    private final StatsCounter statsCounter = new StatsCounter();
+
+    private static class Entry<V> {
+        final V value;
+        final long writeTime;
+
+        Entry(V value, long writeTime) {
+            this.value = value;
+            this.writeTime = writeTime;
+        }
+    }
+
+    public static class Builder<K, V> {
+        private final int capacity;
+        private final Function<? super K, ? extends V> loader;
+        private Function<? super Set<K>, ? extends Map<K, V>> bulkLoader;
+        private long refreshAfterWriteNanos = DISABLED;
+        private Executor executor = ForkJoinPool.commonPool();
+        private LongSupplier ticker = System::nanoTime;
+
+        public Builder(int capacity, Function<? super K, ? extends V> loader) {
+            this.capacity = capacity;
+            this.loader = Objects.requireNonNull(loader);
+        }
+
+        public Builder<K, V> bulkLoader(Function<? super Set<K>, ? extends Map<K, V>> bulkLoader) {
+            this.bulkLoader = Objects.requireNonNull(bulkLoader);
+            return this;
+        }
+
+        public Builder<K, V> refreshAfterWrite(Duration duration) {
+            if (duration.isNegative() || duration.isZero()) {
+                throw new IllegalArgumentException("duration must be positive");
+            }
+            this.refreshAfterWriteNanos = duration.toNanos();
+            return this;
+        }
+
+        public Builder<K, V> executor(Executor executor) {
+            this.executor = Objects.requireNonNull(executor);
+            return this;
+        }
+
+        public Builder<K, V> ticker(LongSupplier ticker) {
+            this.ticker = Objects.requireNonNull(ticker);
+            return this;
+        }
+
+        public LoadingCache<K, V> build() {
+            return new LoadingCache<>(this);
+        }
+    }
+
+    private LoadingCache(Builder<K, V> builder) {
+        this.cache = new ConcurrentLRUCache<>(builder.capacity);
+        this.loader = builder.loader;
+        this.bulkLoader = builder.bulkLoader != null ? builder.bulkLoader : this::loadEach;
+        this.refreshAfterWriteNanos = builder.refreshAfterWriteNanos;
+        this.executor = builder.executor;
+        this.ticker = builder.ticker;
+    }
+
+    public V get(K key) {
+        Entry<V> entry = cache.get(key);
+        if (entry != null) {
+            statsCounter.recordHits(1);
+            refreshIfStale(key, entry);
+            return entry.value;
+        }
+        statsCounter.recordMisses(1);
+
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> inFlight = loading.putIfAbsent(key, future);
+        if (inFlight != null) {
+            return join(inFlight);
+        }
+
+        try {
+            // 다른 스레드가 로딩을 막 끝내고 Future를 지웠을 수 있으므로 한 번 더 확인
+            entry = cache.get(key);
+            V value = entry != null ? entry.value : load(key);
+            future.complete(value);
+            return value;
+        } catch (Throwable e) {
+            // Error나 몰래 던져진 checked 예외도 Future를 끝내야 기다리는 스레드가 멈추지 않음
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, future);
+        }
+    }
+
+    public Map<K, V> getAll(Iterable<? extends K> keys) {
+        Map<K, V> result = new LinkedHashMap<>();
+        Map<K, CompletableFuture<V>> waiting = new LinkedHashMap<>();
+        Map<K, CompletableFuture<V>> owned = new HashMap<>();
+
+        for (K key : keys) {
+            Entry<V> entry = cache.get(key);
+            if (entry != null) {
+                statsCounter.recordHits(1);
+                refreshIfStale(key, entry);
+                result.put(key, entry.value);
+                continue;
+            }
+            statsCounter.recordMisses(1);
+            if (waiting.containsKey(key)) {
+                continue;
+            }
+
+            CompletableFuture<V> future = new CompletableFuture<>();
+            CompletableFuture<V> inFlight = loading.putIfAbsent(key, future);
+            waiting.put(key, inFlight != null ? inFlight : future);
+            if (inFlight == null) {
+                owned.put(key, future);
+            }
+        }
+
+        if (!owned.isEmpty()) {
+            // 이 스레드가 맡은 미스들은 로더를 한 번만 호출해 한꺼번에 적재
+            loadAll(owned);
+        }
+
+        for (Map.Entry<K, CompletableFuture<V>> e : waiting.entrySet()) {
+            V value = join(e.getValue());
+            if (value != null) {
+                result.put(e.getKey(), value);
+            }
+        }
+        return result;
+    }
+
+    public void invalidate(K key) {
+        cache.remove(key);
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    public CacheStats stats() {
+        // 조회와 로딩은 이 캐시에서, 제거는 내부 LRU 캐시에서 집계
+        CacheStats own = statsCounter.snapshot();
+        CacheStats evictions = cache.stats();
+        return new CacheStats(own.hitCount(), own.missCount(), own.loadSuccessCount(), own.loadFailureCount(),
+                own.totalLoadTime(), evictions.evictionCount(), evictions.evictionWeight(), own.loadLatencyCounts());
+    }
+
+    private V load(K key) {
+        V value = loadValue(key);
+        if (value != null) {
+            cache.put(key, new Entry<>(value, ticker.getAsLong()));
+        }
+        return value;
+    }
+
+    private V loadValue(K key) {
+        long startTime = System.nanoTime();
+        V value;
+        try {
+            value = loader.apply(key);
+        } catch (Throwable e) {
+            statsCounter.recordLoadFailure(System.nanoTime() - startTime);
+            throw e;
+        }
+        statsCounter.recordLoadSuccess(System.nanoTime() - startTime);
+        return value;
+    }
+
+    private void loadAll(Map<K, CompletableFuture<V>> owned) {
+        long startTime = System.nanoTime();
+        try {
+            Map<K, V> loaded = bulkLoader.apply(new LinkedHashSet<>(owned.keySet()));
+            statsCounter.recordLoadSuccess(System.nanoTime() - startTime);
+            long now = ticker.getAsLong();
+            for (Map.Entry<K, CompletableFuture<V>> e : owned.entrySet()) {
+                V value = loaded.get(e.getKey());
+                if (value != null) {
+                    cache.put(e.getKey(), new Entry<>(value, now));
+                }
+                e.getValue().complete(value);
+            }
+        } catch (Throwable e) {
+            statsCounter.recordLoadFailure(System.nanoTime() - startTime);
+            for (CompletableFuture<V> future : owned.values()) {
+                future.completeExceptionally(e);
+            }
+            throw e;
+        } finally {
+            owned.forEach(loading::remove);
+        }
+    }
+
+    private void refreshIfStale(K key, Entry<V> entry) {
+        if (refreshAfterWriteNanos == DISABLED || ticker.getAsLong() - entry.writeTime < refreshAfterWriteNanos) {
+            return;
+        }
+
+        CompletableFuture<V> future = new CompletableFuture<>();
+        if (loading.putIfAbsent(key, future) != null) {
+            return;
+        }
+
+        // 기존 값은 그대로 돌려주고, 새 값은 백그라운드에서 다시 읽어옴
+        try {
+            executor.execute(() -> {
+                try {
+                    V value = loadValue(key);
+                    // 다시 읽는 동안 무효화되었거나 다른 값으로 바뀌었다면 그 상태를 덮어쓰지 않음
+                    if (value != null) {
+                        cache.replace(key, entry, new Entry<>(value, ticker.getAsLong()));
+                    }
+                    future.complete(value);
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                } finally {
+                    loading.remove(key, future);
+                }
+            });
+        } catch (Throwable e) {
+            // executor가 작업을 받지 않으면 아무도 future를 끝내지 않으므로, 이 키를 기다리는 로딩이 영원히 멈추지 않도록 직접 정리
+            loading.remove(key, future);
+            future.completeExceptionally(e);
+            // 거절당한 갱신은 다음 조회 때 다시 시도하고, 이번 조회는 기존 값을 그대로 돌려줌
+            if (!(e instanceof RejectedExecutionException)) {
+                throw e;
+            }
+        }
+    }
+
+    private Map<K, V> loadEach(Set<K> keys) {
+        Map<K, V> result = new HashMap<>();
+        for (K key : keys) {
+            result.put(key, loader.apply(key));
+        }
+        return result;
+    }
+
+    private static <V> V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package ka.chapter2.item7.cache;
+
+import ka.chapter2.item7.post.PostEntity;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LoadingCacheTest {
+    @Test
+    void coalescingTest() throws InterruptedException {
+        AtomicInteger loadCount = new AtomicInteger();
+        LoadingCache<Integer, PostEntity> cache = new LoadingCache.Builder<Integer, PostEntity>(100, id -> {
+            // DB에서 게시글을 읽어오는 느린 작업이라고 가정
+            loadCount.incrementAndGet();
+            sleep(100);
+            return new PostEntity(id, "공지" + id, "내용" + id);
+        }).build();
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            threads.add(new Thread(() -> {
+                await(start);
+                cache.get(1);
+            }));
+        }
+        threads.forEach(Thread::start);
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // 8개의 스레드가 동시에 미스가 나도 로딩은 한 번만 수행
+        assertTrue(loadCount.get() == 1);
+    }
+
+    @Test
+    void refreshAfterWriteTest() {
+        AtomicLong ticker = new AtomicLong();
+        AtomicInteger version = new AtomicInteger();
+        LoadingCache<String, Integer> cache = new LoadingCache.Builder<String, Integer>(10, key -> version.incrementAndGet())
+                .refreshAfterWrite(Duration.ofSeconds(10))
+                .executor(Runnable::run)
+                .ticker(ticker::get)
+                .build();
+
+        assertTrue(cache.get("key") == 1);
+
+        // 갱신 시간이 지나면 기존 값을 먼저 돌려주고 새 값을 다시 읽어옴
+        ticker.addAndGet(Duration.ofSeconds(10).toNanos());
+        assertTrue(cache.get("key") == 1);
+        assertTrue(cache.get("key") == 2);
+    }
+
+    @Test
+    void rejectedRefreshTest() {
+        AtomicLong ticker = new AtomicLong();
+        AtomicInteger version = new AtomicInteger();
+        LoadingCache<String, Integer> cache = new LoadingCache.Builder<String, Integer>(10, key -> version.incrementAndGet())
+                .refreshAfterWrite(Duration.ofSeconds(10))
+                .executor(task -> {
+                    throw new RejectedExecutionException("shutting down");
+                })
+                .ticker(ticker::get)
+                .build();
+
+        assertTrue(cache.get("key") == 1);
+        ticker.addAndGet(Duration.ofSeconds(10).toNanos());
+        // 갱신 작업을 넘기지 못해도 기존 값을 돌려줌
+        assertTrue(cache.get("key") == 1);
+
+        // 끝나지 않는 갱신을 기다리지 않고 새로 읽어옴
+        cache.invalidate("key");
+        assertTrue(cache.get("key") == 2);
+    }
+
+    @Test
+    void getAllTest() {
+        AtomicInteger bulkCount = new AtomicInteger();
+        LoadingCache<Integer, String> cache = new LoadingCache.Builder<Integer, String>(100, String::valueOf)
+                .bulkLoader(keys -> {
+                    bulkCount.incrementAndGet();
+                    Map<Integer, String> result = new HashMap<>();
+                    keys.forEach(key -> result.put(key, String.valueOf(key)));
+                    return result;
+                })
+                .build();
+
+        cache.get(1);
+        Map<Integer, String> result = cache.getAll(List.of(1, 2, 3, 4));
+
+        // 미스가 난 2, 3, 4는 한 번의 로더 호출로 적재
+        assertTrue(result.size() == 4);
+        assertTrue(bulkCount.get() == 1);
+        assertTrue(cache.size() == 4);
+    }
+
+    @Test
+    void loaderErrorTest() throws InterruptedException {
+        LoadingCache<Integer, Integer> cache = new LoadingCache.Builder<Integer, Integer>(10, id -> {
+            sleep(100);
+            throw new AssertionError("loader failed");
+        }).build();
+
+        AtomicInteger failures = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            threads.add(new Thread(() -> {
+                try {
+                    cache.get(1);
+                } catch (Throwable e) {
+                    failures.incrementAndGet();
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join(5000);
+        }
+
+        // 로더가 Error를 던져도 같은 키를 기다리던 스레드들이 멈추지 않고 모두 실패를 받음
+        for (Thread thread : threads) {
+            assertTrue(!thread.isAlive());
+        }
+        assertTrue(failures.get() == 4);
+    }
+
+    @Test
+    void invalidateDuringRefreshTest() {
+        AtomicLong ticker = new AtomicLong();
+        AtomicInteger version = new AtomicInteger();
+        List<Runnable> refreshes = new ArrayList<>();
+        LoadingCache<String, Integer> cache = new LoadingCache.Builder<String, Integer>(10, key -> version.incrementAndGet())
+                .refreshAfterWrite(Duration.ofSeconds(10))
+                .executor(refreshes::add)
+                .ticker(ticker::get)
+                .build();
+
+        cache.get("key");
+        ticker.addAndGet(Duration.ofSeconds(10).toNanos());
+        cache.get("key");
+
+        // 갱신이 끝나기 전에 무효화하면, 갱신 결과가 무효화된 키를 되살리지 않음
+        cache.invalidate("key");
+        refreshes.forEach(Runnable::run);
+        assertTrue(cache.size() == 0);
+        assertTrue(cache.get("key") == 3);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
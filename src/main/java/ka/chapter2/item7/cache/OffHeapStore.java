@@ -0,0 +1,267 @@
+package ka.chapter2.item7.cache;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+public class OffHeapStore<K, V> {
+    // 1MB 페이지를 힙 밖에 할당하고, 각 페이지를 하나의 크기 등급(slab class)으로 잘라 사용
+    static final int PAGE_SIZE = 1 << 20;
+    private static final int MIN_CHUNK_SIZE = 64;
+
+    private final ByteBuffer[] pages;
+    // 페이지마다 지금 맡고 있는 크기 등급
+    private final int[] pageClass;
+    private final SlabClass<K>[] slabClasses;
+    // 키로 찾는 구조는 이것 하나. 등급별 LRU 순서는 Slot끼리 직접 이어서 따로 맵을 두지 않음
+    private final Map<K, Slot<K>> index = new HashMap<>();
+    private final Codec<V> codec;
+    private int pageCount;
+    private long usedBytes;
+    // 접근할 때마다 1씩 늘어나는 시계. 등급끼리 가장 오래된 항목을 비교할 때 씀
+    private long clock;
+
+    private static class Slot<K> {
+        final K key;
+        final int page;
+        final int offset;
+        final int length;
+        final int slabClass;
+        long lastAccess;
+        Slot<K> prev;
+        Slot<K> next;
+
+        Slot(K key, int page, int offset, int length, int slabClass) {
+            this.key = key;
+            this.page = page;
+            this.offset = offset;
+            this.length = length;
+            this.slabClass = slabClass;
+        }
+    }
+
+    private static class SlabClass<K> {
+        final int chunkSize;
+        // 비어 있는 청크 주소(page << 20 | offset)를 담는 스택
+        int[] freeChunks = new int[16];
+        int freeCount;
+        int pageCount;
+        // 같은 등급의 Slot을 오래된 순으로 잇는 원형 리스트의 머리. head.next가 가장 오래된 항목
+        final Slot<K> head = new Slot<>(null, -1, -1, 0, -1);
+
+        SlabClass(int chunkSize) {
+            this.chunkSize = chunkSize;
+            head.prev = head;
+            head.next = head;
+        }
+
+        void free(int address) {
+            if (freeCount == freeChunks.length) {
+                freeChunks = Arrays.copyOf(freeChunks, freeCount * 2);
+            }
+            freeChunks[freeCount++] = address;
+        }
+
+        // 다른 등급으로 넘겨줄 페이지의 빈 청크를 스택에서 걷어냄
+        void dropFreeChunksOf(int page) {
+            int kept = 0;
+            for (int i = 0; i < freeCount; i++) {
+                if (freeChunks[i] >>> 20 != page) {
+                    freeChunks[kept++] = freeChunks[i];
+                }
+            }
+            freeCount = kept;
+        }
+
+        Slot<K> eldest() {
+            return head.next == head ? null : head.next;
+        }
+
+        void linkLast(Slot<K> slot) {
+            slot.prev = head.prev;
+            slot.next = head;
+            head.prev.next = slot;
+            head.prev = slot;
+        }
+
+        void unlink(Slot<K> slot) {
+            slot.prev.next = slot.next;
+            slot.next.prev = slot.prev;
+            slot.prev = null;
+            slot.next = null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public OffHeapStore(long capacityBytes, Codec<V> codec) {
+        if (capacityBytes < PAGE_SIZE) {
+            throw new IllegalArgumentException("capacityBytes < " + PAGE_SIZE);
+        }
+        this.pages = new ByteBuffer[(int) Math.min(capacityBytes / PAGE_SIZE, 2048)];
+        this.pageClass = new int[pages.length];
+        this.codec = codec;
+
+        int classCount = Integer.numberOfTrailingZeros(PAGE_SIZE / MIN_CHUNK_SIZE) + 1;
+        this.slabClasses = (SlabClass<K>[]) new SlabClass<?>[classCount];
+        for (int i = 0; i < classCount; i++) {
+            slabClasses[i] = new SlabClass<>(MIN_CHUNK_SIZE << i);
+        }
+    }
+
+    public boolean put(K key, V value) {
+        invalidate(key);
+
+        int size = codec.sizeOf(value);
+        if (size > PAGE_SIZE) {
+            return false;
+        }
+
+        int classIndex = slabClassOf(size);
+        SlabClass<K> slabClass = slabClasses[classIndex];
+        if (slabClass.freeCount == 0 && !allocatePage(classIndex) && !reclaim(classIndex)) {
+            return false;
+        }
+
+        int address = slabClass.freeChunks[--slabClass.freeCount];
+        int page = address >>> 20;
+        int offset = address & (PAGE_SIZE - 1);
+
+        ByteBuffer chunk = pages[page].slice(offset, slabClass.chunkSize);
+        codec.encode(value, chunk);
+
+        Slot<K> slot = new Slot<>(key, page, offset, chunk.position(), classIndex);
+        slot.lastAccess = ++clock;
+        index.put(key, slot);
+        slabClass.linkLast(slot);
+        usedBytes += slabClass.chunkSize;
+        return true;
+    }
+
+    public V get(K key) {
+        Slot<K> slot = index.get(key);
+        if (slot == null) {
+            return null;
+        }
+        SlabClass<K> slabClass = slabClasses[slot.slabClass];
+        slabClass.unlink(slot);
+        slabClass.linkLast(slot);
+        slot.lastAccess = ++clock;
+        return codec.decode(pages[slot.page].slice(slot.offset, slot.length));
+    }
+
+    public V remove(K key) {
+        Slot<K> slot = index.get(key);
+        if (slot == null) {
+            return null;
+        }
+        V value = codec.decode(pages[slot.page].slice(slot.offset, slot.length));
+        invalidate(key);
+        return value;
+    }
+
+    public boolean invalidate(K key) {
+        Slot<K> slot = index.remove(key);
+        if (slot == null) {
+            return false;
+        }
+        SlabClass<K> slabClass = slabClasses[slot.slabClass];
+        slabClass.unlink(slot);
+        slabClass.free(slot.page << 20 | slot.offset);
+        usedBytes -= slabClass.chunkSize;
+        return true;
+    }
+
+    public boolean containsKey(K key) {
+        return index.containsKey(key);
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    public long usedBytes() {
+        return usedBytes;
+    }
+
+    public long allocatedBytes() {
+        return (long) pageCount * PAGE_SIZE;
+    }
+
+    private boolean allocatePage(int classIndex) {
+        if (pageCount == pages.length) {
+            return false;
+        }
+        int page = pageCount++;
+        pages[page] = ByteBuffer.allocateDirect(PAGE_SIZE);
+        carve(page, classIndex);
+        return true;
+    }
+
+    // 새 페이지를 더 만들 수 없을 때 청크 하나를 확보함
+    // 같은 등급의 가장 오래된 항목보다 다른 등급의 가장 오래된 항목이 더 오래됐다면, 값 크기의 분포가 바뀐 것이므로
+    // 그 항목이 든 페이지를 통째로 비워 이 등급에 넘겨줌. 그렇지 않으면 같은 등급 안에서 LRU로 내보냄
+    private boolean reclaim(int classIndex) {
+        Slot<K> own = slabClasses[classIndex].eldest();
+        Slot<K> victim = null;
+        int emptyClass = -1;
+        for (int i = 0; i < slabClasses.length; i++) {
+            SlabClass<K> other = slabClasses[i];
+            if (i == classIndex || other.pageCount == 0) {
+                continue;
+            }
+            Slot<K> eldest = other.eldest();
+            if (eldest == null) {
+                // 페이지는 있지만 항목이 하나도 없는 등급. 아무것도 내보내지 않고 페이지를 가져올 수 있음
+                emptyClass = i;
+                break;
+            }
+            if (victim == null || eldest.lastAccess < victim.lastAccess) {
+                victim = eldest;
+            }
+        }
+
+        if (emptyClass >= 0) {
+            reassign(slabClasses[emptyClass].freeChunks[0] >>> 20, classIndex);
+            return true;
+        }
+        if (own != null && (victim == null || own.lastAccess <= victim.lastAccess)) {
+            invalidate(own.key);
+            return true;
+        }
+        if (victim == null) {
+            return false;
+        }
+        reassign(victim.page, classIndex);
+        return true;
+    }
+
+    // page에 든 항목을 모두 내보내고 classIndex 등급의 청크로 다시 자름
+    private void reassign(int page, int classIndex) {
+        SlabClass<K> from = slabClasses[pageClass[page]];
+        for (Slot<K> slot = from.head.next; slot != from.head; ) {
+            Slot<K> next = slot.next;
+            if (slot.page == page) {
+                invalidate(slot.key);
+            }
+            slot = next;
+        }
+        from.dropFreeChunksOf(page);
+        from.pageCount--;
+        carve(page, classIndex);
+    }
+
+    private void carve(int page, int classIndex) {
+        SlabClass<K> slabClass = slabClasses[classIndex];
+        pageClass[page] = classIndex;
+        slabClass.pageCount++;
+        for (int offset = PAGE_SIZE - slabClass.chunkSize; offset >= 0; offset -= slabClass.chunkSize) {
+            slabClass.free(page << 20 | offset);
+        }
+    }
+
+    private static int slabClassOf(int size) {
+        int chunkSize = Math.max(MIN_CHUNK_SIZE, Integer.highestOneBit(Math.max(size, 1) - 1) << 1);
+        return Integer.numberOfTrailingZeros(chunkSize / MIN_CHUNK_SIZE);
+    }
+}
@@ -0,0 +1,66 @@
+package ka.chapter2.item7.cache;
+
+import java.util.Map;
+
+public class TieredCache<K, V> {
+    private final LRUCache<K, V> heap;
+    private final OffHeapStore<K, V> offHeap;
+
+    public TieredCache(int heapCapacity, long offHeapBytes, Codec<V> codec) {
+        this.offHeap = new OffHeapStore<>(offHeapBytes, codec);
+        this.heap = new LRUCache<>(heapCapacity) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                // 힙에서 밀려난 항목은 버리지 않고 직렬화해서 힙 밖의 2차 캐시로 내림
+                if (super.removeEldestEntry(eldest)) {
+                    offHeap.put(eldest.getKey(), eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public V get(K key) {
+        V value = heap.get(key);
+        if (value != null) {
+            return value;
+        }
+
+        // 2차 캐시에서 읽은 항목은 다시 자주 쓰일 가능성이 높으므로 힙으로 승격
+        value = offHeap.remove(key);
+        if (value != null) {
+            heap.put(key, value);
+        }
+        return value;
+    }
+
+    public V put(K key, V value) {
+        offHeap.invalidate(key);
+        return heap.put(key, value);
+    }
+
+    public V remove(K key) {
+        V value = heap.remove(key);
+        if (value == null) {
+            value = offHeap.remove(key);
+        }
+        return value;
+    }
+
+    public int heapSize() {
+        return heap.size();
+    }
+
+    public int offHeapSize() {
+        return offHeap.size();
+    }
+
+    public long offHeapUsedBytes() {
+        return offHeap.usedBytes();
+    }
+
+    public CacheStats heapStats() {
+        return heap.stats();
+    }
+}
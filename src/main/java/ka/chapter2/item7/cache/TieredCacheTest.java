@@ -0,0 +1,99 @@
+package ka.chapter2.item7.cache;
+
+import ka.chapter2.item7.post.PostEntity;
+import ka.chapter2.item7.post.PostEntityCodec;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TieredCacheTest {
+    private static final int ENTRIES = 20_000;
+    private static final String CONTENT = "게시글 내용입니다. ".repeat(50);
+
+    @Test
+    void demoteAndPromoteTest() {
+        TieredCache<Integer, PostEntity> cache = new TieredCache<>(2, 4 << 20, PostEntityCodec.INSTANCE);
+        for (int id = 1; id <= 10; id++) {
+            cache.put(id, new PostEntity(id, "공지" + id, "내용" + id));
+        }
+
+        // 힙에는 최근 2개만, 나머지는 힙 밖에 보관
+        assertTrue(cache.heapSize() == 2);
+        assertTrue(cache.offHeapSize() == 8);
+
+        // 힙 밖에서 읽으면 힙으로 승격되고, 대신 힙의 가장 오래된 항목이 내려감
+        assertTrue(cache.get(1).toString().equals("PostEntity{id=1}"));
+        assertTrue(cache.heapSize() == 2);
+        assertTrue(cache.offHeapSize() == 8);
+
+        cache.remove(5);
+        assertNull(cache.get(5));
+    }
+
+    @Test
+    void heapFootprintTest() {
+        // 같은 수의 게시글을 힙 LRU에만 둘 때와 2단 캐시에 둘 때의 힙 사용량 비교
+        LRUCache<Integer, PostEntity> heapOnly = new LRUCache<>(ENTRIES);
+        long heapOnlyBytes = usedHeapAfter(() -> {
+            for (int id = 0; id < ENTRIES; id++) {
+                heapOnly.put(id, new PostEntity(id, "공지" + id, CONTENT + id));
+            }
+        });
+
+        TieredCache<Integer, PostEntity> tiered = new TieredCache<>(ENTRIES / 10, 64 << 20, PostEntityCodec.INSTANCE);
+        long tieredBytes = usedHeapAfter(() -> {
+            for (int id = 0; id < ENTRIES; id++) {
+                tiered.put(id, new PostEntity(id, "공지" + id, CONTENT + id));
+            }
+        });
+
+        System.out.println("heap only LRUCache = " + heapOnlyBytes / 1024 + "KB");
+        System.out.println("TieredCache heap = " + tieredBytes / 1024 + "KB, off-heap = "
+                + tiered.offHeapUsedBytes() / 1024 + "KB");
+
+        assertTrue(heapOnly.size() == ENTRIES);
+        // GC에 따라 흔들리는 힙 사용량은 출력만 하고, 객체로 남는 항목 수와 힙 밖으로 옮긴 바이트로 확인
+        // 힙에는 최근 10분의 1만 객체로 남고, 나머지는 인코딩된 크기를 2의 거듭제곱 청크로 올린 만큼만 힙 밖을 씀
+        assertTrue(tiered.heapSize() == ENTRIES / 10);
+        assertTrue(tiered.offHeapSize() == ENTRIES - ENTRIES / 10);
+        long expectedOffHeap = 0;
+        for (int id = 0; id < ENTRIES - ENTRIES / 10; id++) {
+            int size = PostEntityCodec.INSTANCE.sizeOf(new PostEntity(id, "공지" + id, CONTENT + id));
+            expectedOffHeap += Math.max(64, Integer.highestOneBit(size - 1) << 1);
+        }
+        assertTrue(tiered.offHeapUsedBytes() == expectedOffHeap);
+    }
+
+    @Test
+    void sizeShiftTest() {
+        // 페이지 2개를 모두 작은 값 등급이 차지한 뒤, 큰 값만 들어오기 시작하는 상황
+        OffHeapStore<Integer, PostEntity> store = new OffHeapStore<>(2 * OffHeapStore.PAGE_SIZE, PostEntityCodec.INSTANCE);
+        for (int id = 0; id < 40_000; id++) {
+            store.put(id, new PostEntity(id, "공지", "내용"));
+        }
+        assertTrue(store.allocatedBytes() == 2L * OffHeapStore.PAGE_SIZE);
+
+        // 큰 값 등급에는 페이지도, 내보낼 항목도 없지만 오래된 작은 값의 페이지를 넘겨받아 저장함
+        String large = "x".repeat(40_000);
+        for (int id = 100_000; id < 100_010; id++) {
+            assertTrue(store.put(id, new PostEntity(id, "큰 글", large)));
+        }
+        for (int id = 100_000; id < 100_010; id++) {
+            assertTrue(PostEntityCodec.INSTANCE.sizeOf(store.get(id)) > 40_000);
+        }
+        assertTrue(store.allocatedBytes() == 2L * OffHeapStore.PAGE_SIZE);
+        // 한 페이지만 넘겨주었으므로 다른 페이지의 작은 값은 그대로 남아 있음
+        assertTrue(store.size() == OffHeapStore.PAGE_SIZE / 64 + 10);
+        assertNull(store.get(0));
+    }
+
+    private static long usedHeapAfter(Runnable task) {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long before = runtime.totalMemory() - runtime.freeMemory();
+        task.run();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory() - before;
+    }
+}
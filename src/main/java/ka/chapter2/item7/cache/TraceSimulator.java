@@ -0,0 +1,49 @@
+package ka.chapter2.item7.cache;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+public class TraceSimulator {
+    private TraceSimulator() {
+    }
+
+    // 한 줄에 하나의 키가 기록된 트레이스 파일을 읽음
+    public static List<String> readTrace(Path path) throws IOException {
+        return Files.readAllLines(path, StandardCharsets.UTF_8);
+    }
+
+    public static <K> double lruHitRatio(int capacity, Iterable<K> trace) {
+        LRUCache<K, K> cache = new LRUCache<>(capacity);
+        return replay(trace, cache::get, cache::put);
+    }
+
+    public static <K> double tinyLfuHitRatio(int capacity, Iterable<K> trace) {
+        WTinyLFUCache<K, K> cache = new WTinyLFUCache<>(capacity);
+        return replay(trace, cache::get, cache::put);
+    }
+
+    public static <K> void report(int capacity, Iterable<K> trace) {
+        System.out.printf("capacity = %d%n", capacity);
+        System.out.printf("LRU hit ratio = %.2f%%%n", lruHitRatio(capacity, trace) * 100);
+        System.out.printf("W-TinyLFU hit ratio = %.2f%%%n", tinyLfuHitRatio(capacity, trace) * 100);
+    }
+
+    private static <K> double replay(Iterable<K> trace, Function<K, K> get, BiConsumer<K, K> put) {
+        long requests = 0, hits = 0;
+        for (K key : trace) {
+            requests++;
+            if (get.apply(key) != null) {
+                hits++;
+            } else {
+                // 캐시 미스가 나면 원본에서 읽어왔다고 가정하고 캐시에 적재
+                put.accept(key, key);
+            }
+        }
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+}
@@ -0,0 +1,141 @@
+package ka.chapter2.item7.cache;
+
+import java.util.AbstractMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class WTinyLFUCache<K, V> {
+    private final int capacity;
+    private final int windowCapacity;
+    private final int mainCapacity;
+    private final int protectedCapacity;
+
+    // 새로 들어온 항목이 머무는 작은 LRU 영역
+    private final Map<K, V> window = new LinkedHashMap<>(16, 0.75f, true);
+    // 메인 영역 : 한 번 들어온 항목(probation)과 다시 사용된 항목(protected)으로 구분
+    private final Map<K, V> probation = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<K, V> protectedRegion = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final FrequencySketch<K> sketch;
+    private final StatsCounter statsCounter = new StatsCounter();
+
+    public WTinyLFUCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException();
+        }
+        this.capacity = capacity;
+        // 전체의 1%를 윈도우로, 메인 영역의 80%를 protected 영역으로 사용
+        this.windowCapacity = Math.max(1, capacity / 100);
+        this.mainCapacity = capacity - windowCapacity;
+        this.protectedCapacity = mainCapacity * 8 / 10;
+        this.sketch = new FrequencySketch<>(capacity);
+    }
+
+    public V get(K key) {
+        sketch.increment(key);
+
+        V value = window.get(key);
+        if (value == null) {
+            value = protectedRegion.get(key);
+        }
+        if (value == null) {
+            // probation 영역에서 다시 사용된 항목은 protected 영역으로 승격
+            value = probation.remove(key);
+            if (value != null) {
+                promote(key, value);
+            }
+        }
+
+        if (value != null) {
+            statsCounter.recordHits(1);
+        } else {
+            statsCounter.recordMisses(1);
+        }
+        return value;
+    }
+
+    public V put(K key, V value) {
+        sketch.increment(key);
+
+        if (window.containsKey(key)) {
+            return window.put(key, value);
+        }
+        if (protectedRegion.containsKey(key)) {
+            return protectedRegion.put(key, value);
+        }
+        if (probation.containsKey(key)) {
+            V old = probation.remove(key);
+            promote(key, value);
+            return old;
+        }
+
+        window.put(key, value);
+        if (window.size() > windowCapacity) {
+            Map.Entry<K, V> candidate = removeEldest(window);
+            admit(candidate.getKey(), candidate.getValue());
+        }
+        return null;
+    }
+
+    public V remove(K key) {
+        V value = window.remove(key);
+        if (value == null) {
+            value = probation.remove(key);
+        }
+        if (value == null) {
+            value = protectedRegion.remove(key);
+        }
+        return value;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public CacheStats stats() {
+        return statsCounter.snapshot();
+    }
+
+    public int size() {
+        return window.size() + probation.size() + protectedRegion.size();
+    }
+
+    private void admit(K candidateKey, V candidateValue) {
+        if (probation.size() + protectedRegion.size() < mainCapacity) {
+            probation.put(candidateKey, candidateValue);
+            return;
+        }
+        if (mainCapacity == 0) {
+            statsCounter.recordEviction(1);
+            return;
+        }
+
+        // 메인 영역이 가득 찼다면 윈도우에서 밀려난 후보와 메인 영역의 희생자 중 더 자주 쓰인 쪽을 남김
+        Map<K, V> victimRegion = probation.isEmpty() ? protectedRegion : probation;
+        K victimKey = victimRegion.keySet().iterator().next();
+        if (sketch.frequency(candidateKey) > sketch.frequency(victimKey)) {
+            victimRegion.remove(victimKey);
+            probation.put(candidateKey, candidateValue);
+        }
+        // 후보와 희생자 중 어느 쪽이든 하나는 캐시에서 빠짐
+        statsCounter.recordEviction(1);
+    }
+
+    private void promote(K key, V value) {
+        protectedRegion.put(key, value);
+        if (protectedRegion.size() > protectedCapacity) {
+            // protected 영역이 넘치면 가장 오래된 항목을 probation 영역으로 강등
+            Map.Entry<K, V> demoted = removeEldest(protectedRegion);
+            probation.put(demoted.getKey(), demoted.getValue());
+        }
+    }
+
+    private static <K, V> Map.Entry<K, V> removeEldest(Map<K, V> region) {
+        Iterator<Map.Entry<K, V>> iterator = region.entrySet().iterator();
+        Map.Entry<K, V> eldest = iterator.next();
+        Map.Entry<K, V> removed = new AbstractMap.SimpleImmutableEntry<>(eldest.getKey(), eldest.getValue());
+        iterator.remove();
+        return removed;
+    }
+}
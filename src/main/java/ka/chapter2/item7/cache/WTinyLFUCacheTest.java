@@ -0,0 +1,68 @@
+package ka.chapter2.item7.cache;
+
+import ka.chapter2.item7.post.PostEntity;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class WTinyLFUCacheTest {
+    @Test
+    void scanResistanceTest() {
+        LRUCache<Integer, PostEntity> lru = new LRUCache<>(100);
+        WTinyLFUCache<Integer, PostEntity> tinyLfu = new WTinyLFUCache<>(100);
+
+        // 자주 조회되는 게시글 50개
+        for (int round = 0; round < 10; round++) {
+            for (int id = 0; id < 50; id++) {
+                PostEntity post = new PostEntity(id, "공지" + id, "내용" + id);
+                if (lru.get(id) == null) lru.put(id, post);
+                if (tinyLfu.get(id) == null) tinyLfu.put(id, post);
+            }
+        }
+
+        // 배치 리포트가 한 번씩만 조회하는 게시글 1000개
+        for (int id = 1000; id < 2000; id++) {
+            PostEntity post = new PostEntity(id, "리포트" + id, "내용" + id);
+            if (lru.get(id) == null) lru.put(id, post);
+            if (tinyLfu.get(id) == null) tinyLfu.put(id, post);
+        }
+
+        // LRU는 자주 쓰던 게시글을 모두 잃지만, W-TinyLFU는 유지
+        assertNull(lru.get(0));
+        assertTrue(tinyLfu.get(0) != null);
+        assertTrue(tinyLfu.size() <= tinyLfu.capacity());
+    }
+
+    @Test
+    void removeTest() {
+        WTinyLFUCache<String, String> cache = new WTinyLFUCache<>(10);
+        cache.put("one", "1");
+        cache.get("one");
+
+        assertTrue(cache.remove("one").equals("1"));
+        assertNull(cache.get("one"));
+    }
+
+    @Test
+    void simulatorTest() {
+        // 상위 키에 요청이 몰리는 분포에 주기적인 전체 스캔을 섞은 트레이스
+        Random random = new Random(42);
+        List<Integer> trace = new ArrayList<>();
+        for (int i = 0; i < 200_000; i++) {
+            if (i % 20_000 < 2_000) {
+                trace.add(100_000 + i);
+            } else {
+                trace.add((int) (Math.pow(random.nextDouble(), 3) * 10_000));
+            }
+        }
+
+        TraceSimulator.report(500, trace);
+
+        assertTrue(TraceSimulator.tinyLfuHitRatio(500, trace) > TraceSimulator.lruHitRatio(500, trace));
+    }
+}
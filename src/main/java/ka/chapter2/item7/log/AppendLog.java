@@ -0,0 +1,446 @@
+package ka.chapter2.item7.log;
+
+import ka.chapter2.item7.cache.Codec;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.logging.Logger;
+import java.util.zip.CRC32C;
+
+public class AppendLog<V> implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(AppendLog.class.getName());
+
+    // 레코드 하나 : [payload 길이(4byte)] [CRC32C(길이 + payload)(4byte)] [payload]
+    private static final int RECORD_HEADER_BYTES = 8;
+    // 한 번에 매핑할 수 있는 크기가 2GB 미만이므로 1GB씩 나눠서 매핑
+    private static final long MAP_WINDOW = 1L << 30;
+    public static final long DEFAULT_COMPACT_THRESHOLD = 64L << 20;
+
+    private final Path path;
+    private final Codec<V> codec;
+    // 같은 키의 레코드는 마지막 것만 남기고 압축. null이면 모든 레코드가 살아 있으므로 압축하지 않음
+    private final Function<? super V, ?> keyOf;
+    private final long compactThreshold;
+
+    private FileChannel channel;
+    private volatile long size;
+    // 마지막 압축이 끝났을 때의 크기. 이보다 두 배 넘게 커지면 다시 압축
+    private volatile long compactedSize;
+
+    // 그룹 커밋 : 쓰려는 스레드들이 pending에 레코드를 쌓고, 그중 하나(리더)가 모아서 한 번에 쓰고 force함
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition flushed = lock.newCondition();
+    private List<ByteBuffer> pending = new ArrayList<>();
+    private long enqueued;
+    private long durable;
+    // 리더나 압축이 파일 끝을 쓰는 중인지. 한 번에 하나만 쓸 수 있음
+    private boolean writing;
+    private IOException failure;
+    // close()가 채널을 닫은 뒤에는 압축이 파일을 바꿔치기하거나 다시 열지 않음. writing을 잡은 쪽만 읽고 씀
+    private boolean closed;
+    private ByteBuffer writeBuffer = ByteBuffer.allocateDirect(1 << 16);
+
+    private final AtomicBoolean compacting = new AtomicBoolean();
+    private final ExecutorService compactor;
+
+    private AppendLog(Path path, Codec<V> codec, Function<? super V, ?> keyOf, long compactThreshold, FileChannel channel, long size) {
+        this.path = path;
+        this.codec = codec;
+        this.keyOf = keyOf;
+        this.compactThreshold = compactThreshold;
+        this.channel = channel;
+        this.size = size;
+        this.compactedSize = size;
+        this.compactor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "append-log-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static <V> AppendLog<V> open(Path path, Codec<V> codec, Function<? super V, ?> keyOf, Consumer<? super V> replay) throws IOException {
+        return open(path, codec, keyOf, DEFAULT_COMPACT_THRESHOLD, replay);
+    }
+
+    // 파일을 매핑해서 처음부터 레코드를 읽어 replay에 넘김
+    // 쓰다가 멈춰서 잘렸거나 CRC가 맞지 않는 레코드를 만나면 그 앞까지만 유효한 것으로 보고 파일을 잘라냄
+    public static <V> AppendLog<V> open(Path path, Codec<V> codec, Function<? super V, ?> keyOf, long compactThreshold,
+                                        Consumer<? super V> replay) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long end = scan(channel, channel.size(), (offset, payload) -> replay.accept(codec.decode(payload)));
+            if (end < channel.size()) {
+                LOGGER.warning("truncating " + (channel.size() - end) + " bytes of broken tail in " + path);
+                channel.truncate(end);
+                channel.force(true);
+            }
+            channel.position(end);
+            return new AppendLog<>(path, codec, keyOf, compactThreshold, channel, end);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // 파일에 기록되고 force까지 끝나야 돌아옴
+    public void append(V value) {
+        write(Collections.singletonList(encode(value)));
+    }
+
+    public void appendAll(Collection<? extends V> values) {
+        if (values.isEmpty()) {
+            return;
+        }
+        List<ByteBuffer> records = new ArrayList<>(values.size());
+        for (V value : values) {
+            records.add(encode(value));
+        }
+        write(records);
+    }
+
+    public long sizeBytes() {
+        return size;
+    }
+
+    // 백그라운드 스레드에서 압축. 이미 압축 중이면 아무것도 하지 않음
+    public Future<?> compactAsync() {
+        return compactor.submit(() -> {
+            try {
+                compact();
+            } catch (IOException e) {
+                LOGGER.warning("append log compaction failed: " + e);
+            }
+        });
+    }
+
+    // 같은 키의 레코드 중 마지막 것만 새 파일에 옮겨 적고 바꿔치기함
+    // 옮기는 동안에도 쓰기는 계속되며, 그동안 붙은 꼬리만 쓰기를 잠시 막고 이어 붙임
+    public void compact() throws IOException {
+        if (keyOf == null || !compacting.compareAndSet(false, true)) {
+            return;
+        }
+        Path compactPath = path.resolveSibling(path.getFileName() + ".compact");
+        FileChannel target = FileChannel.open(compactPath, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        boolean swapped = false;
+        try {
+            FileChannel source = channel;
+            long end = size;
+            Map<Object, Long> lastOffset = new HashMap<>();
+            scan(source, end, (offset, payload) -> lastOffset.put(keyOf.apply(codec.decode(payload)), offset));
+
+            ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20);
+            scan(source, end, (offset, payload) -> {
+                ByteBuffer record = payload.duplicate();
+                if (lastOffset.get(keyOf.apply(codec.decode(payload))) != offset) {
+                    return;
+                }
+                if (buffer.remaining() < RECORD_HEADER_BYTES + record.remaining()) {
+                    drain(buffer, target);
+                }
+                if (buffer.remaining() < RECORD_HEADER_BYTES + record.remaining()) {
+                    writeFully(frame(record), target);
+                } else {
+                    buffer.putInt(record.remaining()).putInt(crc(record)).put(record);
+                }
+            });
+            drain(buffer, target);
+
+            acquireWriter();
+            try {
+                if (closed) {
+                    return;
+                }
+                // 압축하는 동안 붙은 레코드를 그대로 옮김
+                long tail = size - end;
+                for (long copied = 0; copied < tail; ) {
+                    copied += channel.transferTo(end + copied, tail - copied, target);
+                }
+                target.force(true);
+                long before = size;
+                // 윈도우에서는 열려 있는 파일의 이름을 바꾸거나 덮어쓸 수 없으므로 두 채널을 모두 닫은 뒤 바꿈
+                target.close();
+                channel.close();
+                try {
+                    Files.move(compactPath, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                    swapped = true;
+                    // 이름 바꾸기가 디스크에 남기 전에 쓰기를 받으면, 전원이 나갔을 때 옛 파일이 돌아오면서 그 기록이 사라짐
+                    forceDirectory(path.toAbsolutePath().getParent());
+                } catch (IOException e) {
+                    if (swapped) {
+                        fail(e);
+                    }
+                    throw e;
+                } finally {
+                    // 바꿔치기에 실패했다면 원래 파일을 다시 엶
+                    channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                    size = channel.size();
+                    channel.position(size);
+                }
+                compactedSize = size;
+                LOGGER.fine("compacted " + path + " from " + before + " to " + size + " bytes");
+            } finally {
+                releaseWriter();
+            }
+        } finally {
+            if (!swapped) {
+                target.close();
+                Files.deleteIfExists(compactPath);
+            }
+            compacting.set(false);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        compactor.shutdown();
+        try {
+            // 돌고 있는 압축이 끝나기를 기다림. 기다리다 끊기더라도 closed 표시 때문에 닫힌 로그를 다시 열지 않음
+            compactor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        acquireWriter();
+        try {
+            closed = true;
+            channel.close();
+        } finally {
+            releaseWriter();
+        }
+    }
+
+    private void write(List<ByteBuffer> records) {
+        lock.lock();
+        try {
+            pending.addAll(records);
+            enqueued += records.size();
+            long ticket = enqueued;
+            while (durable < ticket) {
+                if (failure != null) {
+                    throw new UncheckedIOException(failure);
+                }
+                if (writing) {
+                    flushed.awaitUninterruptibly();
+                    continue;
+                }
+                // 리더가 되어 지금까지 쌓인 레코드를 모두 가져감. 쓰는 동안 다른 스레드는 다음 묶음을 쌓음
+                writing = true;
+                List<ByteBuffer> batch = pending;
+                long batchEnd = enqueued;
+                pending = new ArrayList<>();
+                IOException error = null;
+                lock.unlock();
+                try {
+                    flush(batch);
+                } catch (IOException e) {
+                    error = e;
+                } finally {
+                    lock.lock();
+                }
+                writing = false;
+                if (error != null) {
+                    failure = error;
+                } else {
+                    durable = batchEnd;
+                }
+                flushed.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (keyOf != null && size >= compactThreshold && size >= 2 * compactedSize && !compacting.get() && !compactor.isShutdown()) {
+            compactAsync();
+        }
+    }
+
+    private void flush(List<ByteBuffer> batch) throws IOException {
+        int bytes = 0;
+        for (ByteBuffer record : batch) {
+            bytes += record.remaining();
+        }
+        if (writeBuffer.capacity() < bytes) {
+            writeBuffer = ByteBuffer.allocateDirect(Integer.highestOneBit(bytes - 1) << 1);
+        }
+        writeBuffer.clear();
+        for (ByteBuffer record : batch) {
+            writeBuffer.put(record);
+        }
+        writeBuffer.flip();
+        writeFully(writeBuffer, channel);
+        // 묶음 하나에 force 한 번. 메타데이터(수정 시각 등)는 필요 없으므로 false
+        channel.force(false);
+        size += bytes;
+    }
+
+    // 이후의 쓰기가 모두 실패하도록 로그를 망가진 것으로 표시
+    private void fail(IOException e) {
+        lock.lock();
+        try {
+            failure = e;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static void forceDirectory(Path directory) throws IOException {
+        FileChannel dir;
+        try {
+            dir = FileChannel.open(directory, StandardOpenOption.READ);
+        } catch (IOException e) {
+            // 윈도우처럼 디렉터리를 열 수 없는 플랫폼에서는 건너뜀
+            return;
+        }
+        try (dir) {
+            dir.force(true);
+        }
+    }
+
+    private void acquireWriter() {
+        lock.lock();
+        try {
+            while (writing) {
+                flushed.awaitUninterruptibly();
+            }
+            writing = true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void releaseWriter() {
+        lock.lock();
+        try {
+            writing = false;
+            flushed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ByteBuffer encode(V value) {
+        ByteBuffer payload = ByteBuffer.allocate(codec.sizeOf(value));
+        codec.encode(value, payload);
+        payload.flip();
+        return frame(payload);
+    }
+
+    private static ByteBuffer frame(ByteBuffer payload) {
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_BYTES + payload.remaining());
+        record.putInt(payload.remaining()).putInt(crc(payload)).put(payload.duplicate());
+        return record.flip();
+    }
+
+    private static int crc(ByteBuffer payload) {
+        CRC32C crc = new CRC32C();
+        int length = payload.remaining();
+        // 길이도 함께 검사해야 0으로 채워진 꼬리를 빈 레코드로 읽지 않음
+        crc.update(length >>> 24);
+        crc.update(length >>> 16);
+        crc.update(length >>> 8);
+        crc.update(length);
+        crc.update(payload.duplicate());
+        return (int) crc.getValue();
+    }
+
+    private static void drain(ByteBuffer buffer, FileChannel target) throws IOException {
+        buffer.flip();
+        writeFully(buffer, target);
+        buffer.clear();
+    }
+
+    private static void writeFully(ByteBuffer buffer, FileChannel target) throws IOException {
+        while (buffer.hasRemaining()) {
+            target.write(buffer);
+        }
+    }
+
+    private interface RecordVisitor {
+        void visit(long offset, ByteBuffer payload) throws IOException;
+    }
+
+    // [0, end) 구간을 매핑해서 올바른 레코드를 차례로 넘기고, 마지막 올바른 레코드가 끝나는 위치를 반환
+    // 윈도우에서는 매핑이 남아 있으면 파일을 덮어쓸 수 없으므로 다 읽은 창은 바로 해제함
+    // 그래서 visitor는 payload를 visit 밖으로 들고 나가면 안 됨
+    private static long scan(FileChannel channel, long end, RecordVisitor visitor) throws IOException {
+        long pos = 0;
+        long windowStart = 0;
+        MappedByteBuffer window = null;
+        try {
+            while (end - pos >= RECORD_HEADER_BYTES) {
+                if (window == null || pos + RECORD_HEADER_BYTES > windowStart + window.limit()) {
+                    windowStart = pos;
+                    window = remap(channel, window, pos, end);
+                }
+                int at = (int) (pos - windowStart);
+                int length = window.getInt(at);
+                int expected = window.getInt(at + Integer.BYTES);
+                if (length < 0 || length > MAP_WINDOW - RECORD_HEADER_BYTES || end - pos - RECORD_HEADER_BYTES < length) {
+                    break;
+                }
+                if (pos + RECORD_HEADER_BYTES + length > windowStart + window.limit()) {
+                    // 레코드가 창 경계에 걸쳐 있으면 레코드 시작에서 다시 매핑
+                    windowStart = pos;
+                    window = remap(channel, window, pos, end);
+                    at = 0;
+                }
+                ByteBuffer payload = window.duplicate();
+                payload.limit(at + RECORD_HEADER_BYTES + length).position(at + RECORD_HEADER_BYTES);
+                payload = payload.slice();
+                if (crc(payload) != expected) {
+                    break;
+                }
+                visitor.visit(pos, payload);
+                pos += RECORD_HEADER_BYTES + length;
+            }
+            return pos;
+        } finally {
+            if (window != null) {
+                unmap(window);
+            }
+        }
+    }
+
+    private static MappedByteBuffer remap(FileChannel channel, MappedByteBuffer old, long pos, long end) throws IOException {
+        if (old != null) {
+            unmap(old);
+        }
+        return channel.map(FileChannel.MapMode.READ_ONLY, pos, Math.min(MAP_WINDOW, end - pos));
+    }
+
+    // 매핑은 GC가 버퍼를 거둘 때까지 풀리지 않으므로 직접 해제. 해제한 버퍼를 다시 읽으면 JVM이 죽으므로 사본도 남기지 않아야 함
+    private static void unmap(MappedByteBuffer buffer) {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            invokeCleaner.invoke(theUnsafe.get(null), buffer);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // 해제할 수 없는 JVM이라면 GC에 맡김
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package ka.chapter2.item7.log;
+
+import ka.chapter2.item7.cache.Codec;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AppendLogTest {
+    // 테스트용 레코드 : [key(4byte)] [value(8byte)]
+    private static final Codec<long[]> PAIR = new Codec<>() {
+        @Override
+        public int sizeOf(long[] pair) {
+            return Integer.BYTES + Long.BYTES;
+        }
+
+        @Override
+        public void encode(long[] pair, ByteBuffer dst) {
+            dst.putInt((int) pair[0]).putLong(pair[1]);
+        }
+
+        @Override
+        public long[] decode(ByteBuffer src) {
+            return new long[]{src.getInt(), src.getLong()};
+        }
+    };
+
+    @Test
+    void recoveryTest() throws IOException {
+        Path file = Files.createTempFile("append", ".log");
+        try {
+            try (AppendLog<long[]> log = AppendLog.open(file, PAIR, pair -> pair[0], pair -> {
+            })) {
+                for (int i = 0; i < 100; i++) {
+                    log.append(new long[]{i, i * 10L});
+                }
+                log.appendAll(List.of(new long[]{100, 1000}, new long[]{101, 1010}));
+            }
+            long validSize = Files.size(file);
+
+            // 쓰다가 멈춘 것처럼 마지막 레코드를 반쯤 잘라내고 꼬리에 0을 붙임
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate(validSize - 5);
+                channel.write(ByteBuffer.allocate(64), validSize - 5);
+            }
+
+            List<long[]> replayed = new ArrayList<>();
+            try (AppendLog<long[]> log = AppendLog.open(file, PAIR, pair -> pair[0], replayed::add)) {
+                // 잘린 레코드부터는 버리고 파일도 그 앞까지 줄임
+                assertEquals(101, replayed.size());
+                assertEquals(validSize - 20, log.sizeBytes());
+                assertEquals(validSize - 20, Files.size(file));
+                for (int i = 0; i < replayed.size(); i++) {
+                    assertEquals(i * 10L, replayed.get(i)[1]);
+                }
+                log.append(new long[]{101, 1010});
+            }
+
+            replayed.clear();
+            try (AppendLog<long[]> log = AppendLog.open(file, PAIR, pair -> pair[0], replayed::add)) {
+                assertEquals(102, replayed.size());
+                assertEquals(validSize, log.sizeBytes());
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void crcTest() throws IOException {
+        Path file = Files.createTempFile("append", ".log");
+        try {
+            try (AppendLog<long[]> log = AppendLog.open(file, PAIR, null, pair -> {
+            })) {
+                for (int i = 0; i < 10; i++) {
+                    log.append(new long[]{i, i});
+                }
+            }
+            // 다섯 번째 레코드(20바이트씩)의 값 한 바이트를 바꿈
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.write(ByteBuffer.wrap(new byte[]{0x7f}), 4 * 20 + 19);
+            }
+            List<long[]> replayed = new ArrayList<>();
+            AppendLog.open(file, PAIR, null, replayed::add).close();
+            assertEquals(4, replayed.size());
+            assertEquals(4 * 20, Files.size(file));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void compactionTest() throws Exception {
+        Path file = Files.createTempFile("append", ".log");
+        try {
+            int keys = 10;
+            try (AppendLog<long[]> log = AppendLog.open(file, PAIR, pair -> pair[0], pair -> {
+            })) {
+                for (int i = 0; i < 10_000; i++) {
+                    log.append(new long[]{i % keys, i});
+                }
+                long before = log.sizeBytes();
+
+                // 압축하는 동안 들어온 쓰기도 잃어버리지 않음
+                ExecutorService executor = Executors.newSingleThreadExecutor();
+                Future<?> writer = executor.submit(() -> {
+                    for (int i = 0; i < 1000; i++) {
+                        log.append(new long[]{keys + i % 5, i});
+                    }
+                });
+                log.compact();
+                writer.get();
+                executor.shutdown();
+                assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+                log.compact();
+
+                System.out.println("before = " + before + "B, after = " + log.sizeBytes() + "B");
+                assertEquals((keys + 5) * 20L, log.sizeBytes());
+                assertFalse(Files.exists(file.resolveSibling(file.getFileName() + ".compact")));
+                log.append(new long[]{0, -1});
+            }
+
+            Map<Long, Long> latest = new HashMap<>();
+            try (AppendLog<long[]> log = AppendLog.open(file, PAIR, pair -> pair[0], pair -> latest.put(pair[0], pair[1]))) {
+                // 압축 뒤에 붙인 레코드까지 남아 있음
+                assertEquals((keys + 5 + 1) * 20L, log.sizeBytes());
+                assertEquals(keys + 5, latest.size());
+                assertEquals(-1L, (long) latest.get(0L));
+                assertEquals(9999L, (long) latest.get(9L));
+                assertEquals(999L, (long) latest.get(keys + 4L));
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void backgroundCompactionTest() throws Exception {
+        Path file = Files.createTempFile("append", ".log");
+        try {
+            // 4KB를 넘고 마지막 압축 때보다 두 배 커지면 백그라운드에서 압축
+            try (AppendLog<long[]> log = AppendLog.open(file, PAIR, pair -> pair[0], 4096, pair -> {
+            })) {
+                long max = 0;
+                for (int i = 0; i < 5000; i++) {
+                    log.append(new long[]{i % 4, i});
+                    max = Math.max(max, log.sizeBytes());
+                }
+                log.compactAsync().get();
+                System.out.println("max = " + max + "B, after = " + log.sizeBytes() + "B");
+                assertTrue(max < 5000 * 20);
+                assertEquals(4 * 20, log.sizeBytes());
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void groupCommitBenchmarkTest() throws Exception {
+        Path file = Files.createTempFile("append", ".log");
+        try (AppendLog<long[]> log = AppendLog.open(file, PAIR, null, pair -> {
+        })) {
+            int threads = 16, perThread = 5000;
+
+            long startTime = System.nanoTime();
+            for (int i = 0; i < perThread; i++) {
+                log.append(new long[]{i, i});
+            }
+            long singleTime = System.nanoTime() - startTime;
+
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            List<Future<?>> futures = new ArrayList<>();
+            startTime = System.nanoTime();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        log.append(new long[]{i, i});
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            long groupTime = System.nanoTime() - startTime;
+            executor.shutdown();
+
+            List<long[]> batch = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                batch.add(new long[]{i, i});
+            }
+            startTime = System.nanoTime();
+            for (int i = 0; i < 100; i++) {
+                log.appendAll(batch);
+            }
+            long batchTime = System.nanoTime() - startTime;
+
+            System.out.println("1 thread = " + perThread * 1_000_000_000L / singleTime + " writes/s"
+                    + ", " + threads + " threads = " + (long) threads * perThread * 1_000_000_000L / groupTime + " writes/s"
+                    + ", appendAll(1000) = " + 100_000 * 1_000_000_000L / batchTime + " writes/s");
+            assertEquals((perThread + (long) threads * perThread + 100_000) * 20, log.sizeBytes());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package ka.chapter2.item7.post;
+
+import ka.chapter2.item7.cache.Codec;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+public class PostEntityCodec implements Codec<PostEntity> {
+    public static final PostEntityCodec INSTANCE = new PostEntityCodec();
+
+    private PostEntityCodec() {
+    }
+
+    // [id(4byte)] [title 길이(varint)] [title(UTF-8)] [content 길이(varint)] [content(UTF-8)]
+    @Override
+    public int sizeOf(PostEntity entity) {
+        int titleLength = utf8Length(entity.title);
+        int contentLength = utf8Length(entity.content);
+        return Integer.BYTES + varIntSize(titleLength) + titleLength + varIntSize(contentLength) + contentLength;
+    }
+
+    @Override
+    public void encode(PostEntity entity, ByteBuffer dst) {
+        dst.putInt(entity.id);
+        putString(entity.title, dst);
+        putString(entity.content, dst);
+    }
+
+    @Override
+    public PostEntity decode(ByteBuffer src) {
+        int id = src.getInt();
+        String title = getString(src);
+        String content = getString(src);
+        return new PostEntity(id, title, content);
+    }
+
+    private static void putString(String s, ByteBuffer dst) {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        putVarInt(bytes.length, dst);
+        dst.put(bytes);
+    }
+
+    private static String getString(ByteBuffer src) {
+        int length = getVarInt(src);
+        byte[] bytes = new byte[length];
+        src.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void putVarInt(int value, ByteBuffer dst) {
+        while ((value & ~0x7f) != 0) {
+            dst.put((byte) ((value & 0x7f) | 0x80));
+            value >>>= 7;
+        }
+        dst.put((byte) value);
+    }
+
+    private static int getVarInt(ByteBuffer src) {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = src.get();
+            value |= (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+    }
+
+    private static int varIntSize(int value) {
+        int size = 1;
+        while ((value & ~0x7f) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    // 문자열을 바이트 배열로 바꾸지 않고 UTF-8로 인코딩했을 때의 길이를 계산
+    private static int utf8Length(String s) {
+        int length = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                length += 1;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+}
@@ -0,0 +1,28 @@
+package ka.chapter2.item7.post;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PostEntityCodecTest {
+    @Test
+    void roundTripTest() {
+        PostEntity original = new PostEntity(7, "공지사항 😀", "내용 content ".repeat(100));
+        PostEntityCodec codec = PostEntityCodec.INSTANCE;
+
+        ByteBuffer buffer = ByteBuffer.allocate(codec.sizeOf(original));
+        codec.encode(original, buffer);
+
+        // 계산한 크기만큼 정확히 기록
+        assertTrue(buffer.remaining() == 0);
+
+        buffer.flip();
+        PostEntity decoded = codec.decode(buffer);
+
+        assertTrue(decoded.id == 7);
+        assertTrue(decoded.title.equals(original.title));
+        assertTrue(decoded.content.equals(original.content));
+    }
+}
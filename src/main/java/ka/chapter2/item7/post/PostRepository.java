@@ -0,0 +1,197 @@
+package ka.chapter2.item7.post;
+
+import ka.chapter2.item7.log.AppendLog;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class PostRepository {
+    private static final Comparator<PostEntity> BY_TITLE =
+            Comparator.comparing((PostEntity e) -> e.title, Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+                    .thenComparingInt(e -> e.id);
+    private static final int STRIPES = 64;
+
+    // 여러 스레드가 동시에 저장해도 같은 id가 나오지 않도록 size() + 1 대신 시퀀스를 씀
+    private final AtomicLong sequence = new AtomicLong();
+    // id로 찾는 기본 인덱스
+    private final ConcurrentHashMap<Integer, PostEntity> byId = new ConcurrentHashMap<>();
+    // 페이지 단위로 훑을 때 쓰는 id 순 인덱스
+    private final ConcurrentSkipListMap<Integer, PostEntity> ordered = new ConcurrentSkipListMap<>();
+    // 제목 접두어 검색용. 제목이 같으면 id 순
+    private final ConcurrentSkipListSet<PostEntity> byTitle = new ConcurrentSkipListSet<>(BY_TITLE);
+    // null이면 메모리에만 저장. 있으면 로그에 먼저 기록한 뒤 인덱스에 넣음
+    private AppendLog<PostEntity> log;
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+
+    public PostRepository() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    // 로그 파일에 남은 글을 모두 읽어 들인 저장소를 만들고, 이후 저장하는 글은 로그에도 기록
+    // 같은 id의 글은 마지막 것만 남기고 압축
+    public static PostRepository open(Path path) throws IOException {
+        PostRepository repository = new PostRepository();
+        repository.log = AppendLog.open(path, PostEntityCodec.INSTANCE, entity -> entity.id, repository::add);
+        return repository;
+    }
+
+    public void close() throws IOException {
+        if (log != null) {
+            log.close();
+        }
+    }
+
+    public PostEntity save(PostDto dto) {
+        PostEntity entity = new PostEntity(nextIds(1), dto.title, dto.content);
+        write(Collections.singletonList(entity));
+        return entity;
+    }
+
+    // id를 한 번에 묶어서 받아오므로 한 번에 저장한 글들의 id는 연속됨
+    public List<PostEntity> saveAll(PostDto... dtos) {
+        List<PostEntity> saved = new ArrayList<>(dtos.length);
+        if (dtos.length == 0) {
+            return saved;
+        }
+        int firstId = nextIds(dtos.length);
+        for (int i = 0; i < dtos.length; i++) {
+            saved.add(new PostEntity(firstId + i, dtos[i].title, dtos[i].content));
+        }
+        write(saved);
+        return saved;
+    }
+
+    // 이미 id가 정해진 글을 저장. 같은 id가 있으면 덮어쓰고, 이후 save가 이 id를 다시 주지 않도록 시퀀스를 당겨 둠
+    public void add(PostEntity entity) {
+        sequence.accumulateAndGet(entity.id, Math::max);
+        write(Collections.singletonList(entity));
+    }
+
+    // entities의 앞 count개를 한 번에 저장. 시퀀스는 가장 큰 id까지 한 번만 당김
+    public void addAll(PostEntity[] entities, int count) {
+        int maxId = 0;
+        for (int i = 0; i < count; i++) {
+            maxId = Math.max(maxId, entities[i].id);
+        }
+        sequence.accumulateAndGet(maxId, Math::max);
+        write(Arrays.asList(entities).subList(0, count));
+    }
+
+    public PostEntity findById(int id) {
+        return byId.get(id);
+    }
+
+    public List<PostEntity> findByTitlePrefix(String prefix) {
+        PostEntity from = new PostEntity(Integer.MIN_VALUE, prefix, null);
+        PostEntity to = new PostEntity(Integer.MIN_VALUE, prefix + Character.MAX_VALUE, null);
+        return new ArrayList<>(byTitle.subSet(from, true, to, false));
+    }
+
+    // afterId 다음 id부터 최대 limit개. 처음에는 0을 넘기고, 이후에는 앞 페이지의 nextCursor()를 넘김
+    // 전체를 복사하지 않고 id 순 인덱스를 필요한 만큼만 훑음
+    public Page findAll(int afterId, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+        List<PostEntity> items = new ArrayList<>(Math.min(limit, 1024));
+        Iterator<PostEntity> it = ordered.tailMap(afterId, false).values().iterator();
+        while (items.size() < limit && it.hasNext()) {
+            items.add(it.next());
+        }
+        int nextCursor = items.isEmpty() ? afterId : items.get(items.size() - 1).id;
+        return new Page(items, nextCursor, it.hasNext());
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    private int nextIds(int count) {
+        long first = sequence.getAndAdd(count) + 1;
+        // 마지막 id까지 int 범위 안에 들어야 함
+        Math.toIntExact(first + count - 1);
+        return (int) first;
+    }
+
+    // 로그에 먼저 기록한 뒤 인덱스에 넣음. 같은 id를 동시에 쓰면 로그 순서와 메모리 순서가 어긋날 수 있으므로
+    // 해당 id의 줄(stripe)을 잡은 채로 두 단계를 모두 끝냄. 묶음은 여러 줄을 번호 순으로 잡아 교착을 피함
+    private void write(List<PostEntity> entities) {
+        if (log == null) {
+            for (PostEntity entity : entities) {
+                index(entity);
+            }
+            return;
+        }
+        boolean[] held = new boolean[STRIPES];
+        for (PostEntity entity : entities) {
+            held[entity.id & (STRIPES - 1)] = true;
+        }
+        for (int i = 0; i < STRIPES; i++) {
+            if (held[i]) {
+                stripes[i].lock();
+            }
+        }
+        try {
+            // 묶음 전체를 force 한 번으로 기록
+            log.appendAll(entities);
+            for (PostEntity entity : entities) {
+                index(entity);
+            }
+        } finally {
+            for (int i = STRIPES - 1; i >= 0; i--) {
+                if (held[i]) {
+                    stripes[i].unlock();
+                }
+            }
+        }
+    }
+
+    private void index(PostEntity entity) {
+        // 같은 id에 대한 갱신은 compute 안에서 차례로 일어나므로 세 인덱스가 어긋나지 않음
+        byId.compute(entity.id, (id, old) -> {
+            if (old != null) {
+                byTitle.remove(old);
+            }
+            byTitle.add(entity);
+            ordered.put(id, entity);
+            return entity;
+        });
+    }
+
+    public static class Page {
+        private final List<PostEntity> items;
+        private final int nextCursor;
+        private final boolean hasNext;
+
+        Page(List<PostEntity> items, int nextCursor, boolean hasNext) {
+            this.items = items;
+            this.nextCursor = nextCursor;
+            this.hasNext = hasNext;
+        }
+
+        public List<PostEntity> items() {
+            return items;
+        }
+
+        public int nextCursor() {
+            return nextCursor;
+        }
+
+        public boolean hasNext() {
+            return hasNext;
+        }
+    }
+}
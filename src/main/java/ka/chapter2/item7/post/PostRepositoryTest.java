@@ -0,0 +1,235 @@
+package ka.chapter2.item7.post;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PostRepositoryTest {
+    @Test
+    void concurrentSaveTest() throws Exception {
+        // size() + 1로 id를 만들던 때는 동시에 저장하면 같은 id가 나올 수 있었음
+        PostRepository repository = new PostRepository();
+        int threads = 8, perThread = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<List<Integer>>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                List<Integer> ids = new ArrayList<>();
+                for (int i = 0; i < perThread; i++) {
+                    if (i % 10 == 0) {
+                        for (PostEntity entity : repository.saveAll(new PostDto("batch", "a"), new PostDto("batch", "b"))) {
+                            ids.add(entity.id);
+                        }
+                    } else {
+                        ids.add(repository.save(new PostDto("post-" + thread, "content")).id);
+                    }
+                }
+                return ids;
+            }));
+        }
+        Set<Integer> unique = new HashSet<>();
+        int total = 0;
+        for (Future<List<Integer>> future : futures) {
+            for (int id : future.get()) {
+                unique.add(id);
+                total++;
+            }
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(total, unique.size());
+        assertEquals(total, repository.size());
+        for (int id : unique) {
+            assertEquals(id, repository.findById(id).id);
+        }
+    }
+
+    @Test
+    void saveAllTest() {
+        PostRepository repository = new PostRepository();
+        repository.save(new PostDto("first", ""));
+        List<PostEntity> saved = repository.saveAll(new PostDto("a", ""), new PostDto("b", ""), new PostDto("c", ""));
+        // 한 번에 저장한 글들의 id는 연속됨
+        assertEquals(2, saved.get(0).id);
+        assertEquals(3, saved.get(1).id);
+        assertEquals(4, saved.get(2).id);
+        assertTrue(repository.saveAll().isEmpty());
+
+        // 직접 id를 정해 넣으면 이후 save는 그 뒤의 id를 받음
+        repository.add(new PostEntity(100, "fixed", ""));
+        assertEquals(101, repository.save(new PostDto("next", "")).id);
+        assertNull(repository.findById(50));
+    }
+
+    @Test
+    void titlePrefixTest() {
+        PostRepository repository = new PostRepository();
+        repository.saveAll(
+                new PostDto("공지사항", ""), new PostDto("공지", ""), new PostDto("공부", ""),
+                new PostDto("hello", ""), new PostDto("help", ""), new PostDto("world", ""));
+
+        List<PostEntity> notices = repository.findByTitlePrefix("공지");
+        assertEquals(2, notices.size());
+        assertEquals("공지", notices.get(0).title);
+        assertEquals("공지사항", notices.get(1).title);
+        assertEquals(2, repository.findByTitlePrefix("hel").size());
+        assertEquals(6, repository.findByTitlePrefix("").size());
+        assertTrue(repository.findByTitlePrefix("x").isEmpty());
+
+        // 같은 id로 덮어쓰면 이전 제목은 인덱스에서 빠짐
+        repository.add(new PostEntity(6, "공지 수정", ""));
+        assertEquals(3, repository.findByTitlePrefix("공지").size());
+        assertTrue(repository.findByTitlePrefix("world").isEmpty());
+    }
+
+    @Test
+    void findAllCursorTest() {
+        PostRepository repository = new PostRepository();
+        for (int i = 0; i < 25; i++) {
+            repository.save(new PostDto("post" + i, ""));
+        }
+        repository.add(new PostEntity(1000, "far", ""));
+
+        List<Integer> ids = new ArrayList<>();
+        int cursor = 0, pages = 0;
+        PostRepository.Page page;
+        do {
+            page = repository.findAll(cursor, 10);
+            for (PostEntity entity : page.items()) {
+                ids.add(entity.id);
+            }
+            cursor = page.nextCursor();
+            pages++;
+        } while (page.hasNext());
+
+        assertEquals(3, pages);
+        assertEquals(26, ids.size());
+        assertEquals(1000, (int) ids.get(25));
+        for (int i = 0; i < 25; i++) {
+            assertEquals(i + 1, (int) ids.get(i));
+        }
+        PostRepository.Page last = repository.findAll(1000, 10);
+        assertTrue(last.items().isEmpty());
+        assertFalse(last.hasNext());
+        assertEquals(1000, last.nextCursor());
+        assertThrows(IllegalArgumentException.class, () -> repository.findAll(0, 0));
+    }
+
+    @Test
+    void persistenceTest() throws Exception {
+        Path file = Files.createTempFile("posts", ".log");
+        try {
+            PostRepository repository = PostRepository.open(file);
+            repository.save(new PostDto("hello", "world"));
+            repository.saveAll(new PostDto("공지", "내용"), new PostDto("help", ""));
+            repository.add(new PostEntity(2, "공지 수정", "바뀐 내용"));
+            repository.close();
+
+            // 다시 열면 로그를 재생해서 인덱스와 시퀀스를 되살림
+            PostRepository reopened = PostRepository.open(file);
+            assertEquals(3, reopened.size());
+            assertEquals("바뀐 내용", reopened.findById(2).content);
+            assertEquals(1, reopened.findByTitlePrefix("공지").size());
+            assertEquals(4, reopened.save(new PostDto("next", "")).id);
+            reopened.close();
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void concurrentOverwritePersistenceTest() throws Exception {
+        Path file = Files.createTempFile("posts", ".log");
+        try {
+            PostRepository repository = PostRepository.open(file);
+            ExecutorService executor = Executors.newFixedThreadPool(4);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        // 같은 id 몇 개를 여러 스레드가 번갈아 덮어씀
+                        repository.add(new PostEntity(i % 8 + 1, "t" + thread + "-" + i, ""));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            executor.shutdown();
+            List<String> inMemory = new ArrayList<>();
+            for (int id = 1; id <= 8; id++) {
+                inMemory.add(repository.findById(id).title);
+            }
+            repository.close();
+
+            // 로그를 재생한 결과가 메모리에 있던 마지막 값과 같음
+            PostRepository reopened = PostRepository.open(file);
+            for (int id = 1; id <= 8; id++) {
+                assertEquals(inMemory.get(id - 1), reopened.findById(id).title);
+            }
+            reopened.close();
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void serviceTest() {
+        PostService service = PostService.INSTANCE;
+        PostEntity entity = service.savePost(new PostDto("service", "content"));
+        assertSame(entity, service.findById(entity.id));
+    }
+
+    @Test
+    void lookupBenchmarkTest() {
+        int count = 20_000;
+        List<PostEntity> list = new LinkedList<>();
+        PostRepository repository = new PostRepository();
+        for (int i = 0; i < count; i++) {
+            PostEntity entity = repository.save(new PostDto("post" + i, ""));
+            list.add(entity);
+        }
+
+        long startTime = System.nanoTime();
+        long sum = 0;
+        for (int id = 1; id <= count; id += 10) {
+            for (PostEntity entity : list) {
+                if (entity.id == id) {
+                    sum += entity.id;
+                    break;
+                }
+            }
+        }
+        long listTime = System.nanoTime() - startTime;
+
+        startTime = System.nanoTime();
+        long indexedSum = 0;
+        for (int id = 1; id <= count; id += 10) {
+            indexedSum += repository.findById(id).id;
+        }
+        long indexTime = System.nanoTime() - startTime;
+
+        System.out.println("LinkedList = " + listTime / (count / 10) + "ns, PostRepository = " + indexTime / (count / 10) + "ns");
+        assertEquals(sum, indexedSum);
+    }
+}
@@ -1,31 +1,137 @@
 package ka.chapter2.item7.post;
 
-import java.util.LinkedList;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 public class PostService {
     public static final PostService INSTANCE = new PostService();
+    // 한 번에 메모리에 올리는 Dto 수. 원본이 백만 건이어도 이만큼만 들고 있음
+    static final int INGEST_CHUNK_SIZE = 4096;
+
     private PostService() {
 
     }
 
-    List<PostEntity> repository = new LinkedList<>();
+    PostRepository repository = new PostRepository();
+
+    // 시작할 때 한 번 호출. 로그 파일의 글로 저장소를 새로 채우고, 이후 저장하는 글은 파일에도 남김
+    public void persistTo(Path path) throws IOException {
+        PostRepository old = repository;
+        repository = PostRepository.open(path);
+        old.close();
+    }
 
     public PostEntity savePost(PostDto dto) {
-        PostEntity entity = new PostEntity(repository.size() + 1, dto.title, dto.content);
-        repository.add(entity);
-        return entity;
+        return repository.save(dto);
+    }
+
+    public List<PostEntity> saveAll(PostDto... arr) {
+        return repository.saveAll(arr);
+    }
+
+    public PostEntity findById(int id) {
+        return repository.findById(id);
+    }
+
+    public List<PostEntity> findByTitlePrefix(String prefix) {
+        return repository.findByTitlePrefix(prefix);
+    }
+
+    public PostRepository.Page findAll(int afterId, int limit) {
+        return repository.findAll(afterId, limit);
     }
 
     public void addAllById(int id, PostDto... arr) {
         // 여러 Dto 중에 해당되는 id에 대해서만 저장
-        for (int i = 0; i < arr.length; i++) {
-            PostEntity entity = new PostEntity(arr[i].id, arr[i].title, arr[i].content);
-            if (arr[i].id == id) {
-                repository.add(entity);
+        // id를 먼저 확인하므로 걸러지는 Dto에 대해서는 PostEntity를 만들지 않음
+        ingest(Arrays.spliterator(arr), dto -> dto.id == id);
+    }
+
+    public long addAllById(int id, Iterator<PostDto> source) {
+        return ingest(source, dto -> dto.id == id);
+    }
+
+    public long ingest(Iterator<PostDto> source, Predicate<? super PostDto> filter) {
+        return ingest(Spliterators.spliteratorUnknownSize(source, Spliterator.ORDERED), filter);
+    }
+
+    public long ingest(Stream<PostDto> source, Predicate<? super PostDto> filter) {
+        return ingest(source.spliterator(), filter);
+    }
+
+    // Dto가 가진 id 그대로 저장하며, 저장한 글의 수를 반환
+    // 원본은 순서대로 읽으면서 filter를 통과한 Dto만 청크에 모으고, 청크가 차면 병렬로 PostEntity로 바꾼 뒤 한 번에 저장소에 넣음
+    public long ingest(Spliterator<PostDto> source, Predicate<? super PostDto> filter) {
+        Chunk chunk = new Chunk(filter);
+        long total = 0;
+        boolean more = true;
+        while (more) {
+            do {
+                more = source.tryAdvance(chunk);
+            } while (more && !chunk.isFull());
+            if (chunk.size > 0) {
+                total += chunk.size;
+                chunk.commitTo(repository);
+            }
+        }
+        return total;
+    }
+
+    // filter를 통과한 Dto를 모아두는 버퍼. 걸러지는 행이 대부분이라면 작은 배열로 끝나도록 필요할 때만 두 배씩 늘림
+    private static class Chunk implements Consumer<PostDto> {
+        final Predicate<? super PostDto> filter;
+        PostDto[] dtos = new PostDto[16];
+        PostEntity[] entities = new PostEntity[16];
+        int size;
+
+        Chunk(Predicate<? super PostDto> filter) {
+            this.filter = filter;
+        }
+
+        @Override
+        public void accept(PostDto dto) {
+            if (!filter.test(dto)) {
+                return;
+            }
+            if (size == dtos.length) {
+                dtos = Arrays.copyOf(dtos, size * 2);
+                entities = new PostEntity[size * 2];
+            }
+            dtos[size++] = dto;
+        }
+
+        boolean isFull() {
+            return size == INGEST_CHUNK_SIZE;
+        }
+
+        void commitTo(PostRepository repository) {
+            if (isFull()) {
+                // 배열은 두 배씩 늘어나므로 청크 크기보다 길 수 있음. 앞 size칸만 변환
+                IntStream.range(0, size).parallel().forEach(i -> entities[i] = toEntity(dtos[i]));
+            } else {
+                // 마지막 자투리 청크는 병렬로 나눌 만큼 크지 않음
+                for (int i = 0; i < size; i++) {
+                    entities[i] = toEntity(dtos[i]);
+                }
             }
+            repository.addAll(entities, size);
+            // 다음 청크를 모으는 동안 이미 저장한 객체를 붙잡고 있지 않도록 비움
+            Arrays.fill(dtos, 0, size, null);
+            Arrays.fill(entities, 0, size, null);
+            size = 0;
         }
+    }
 
-        // 위 for문이 끝나면 쓸데없이 만들어졌던 객체들(참조 되지 않는 객체들)이 더 이상 접근되지 않음
+    private static PostEntity toEntity(PostDto dto) {
+        return new PostEntity(dto.id, dto.title, dto.content);
     }
 }
@@ -2,9 +2,18 @@ package ka.chapter2.item7.post;
 
 import org.junit.jupiter.api.Test;
 
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.IntStream;
+
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class PostTest {
+    private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
     @Test
     void saveTest1 () {
         // null을 처리하는 경우
@@ -30,4 +39,94 @@ public class PostTest {
 
         assertTrue(entity.title.equals("Hello"));
     }
+
+    @Test
+    void addAllByIdTest() {
+        PostService service = PostService.INSTANCE;
+        service.repository = new PostRepository();
+        PostDto[] arr = new PostDto[10_000];
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] = new PostDto("title" + i, "content");
+            arr[i].id = i + 1;
+        }
+
+        // JIT 워밍업
+        for (int i = 0; i < 3; i++) {
+            allocateAll(arr, 5000);
+            service.addAllById(5000, arr);
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long allocated = THREAD_MX_BEAN.getThreadAllocatedBytes(threadId);
+        List<PostEntity> old = allocateAll(arr, 5000);
+        long oldBytes = THREAD_MX_BEAN.getThreadAllocatedBytes(threadId) - allocated;
+
+        allocated = THREAD_MX_BEAN.getThreadAllocatedBytes(threadId);
+        service.addAllById(5000, arr);
+        long filteredBytes = THREAD_MX_BEAN.getThreadAllocatedBytes(threadId) - allocated;
+
+        System.out.println("entity per row = " + oldBytes + "B, filter first = " + filteredBytes + "B");
+        assertTrue(old.size() == 1);
+        assertTrue(service.repository.size() == 1);
+        assertTrue(service.findById(5000).title.equals("title4999"));
+        assertTrue(filteredBytes * 10 < oldBytes);
+    }
+
+    @Test
+    void millionRowIngestTest() {
+        PostService service = PostService.INSTANCE;
+        service.repository = new PostRepository();
+        int rows = 1_000_000;
+        // 백만 건을 미리 만들어 두지 않고 읽을 때마다 하나씩 만드는 원본
+        Iterator<PostDto> source = new Iterator<>() {
+            int next = 1;
+
+            @Override
+            public boolean hasNext() {
+                return next <= rows;
+            }
+
+            @Override
+            public PostDto next() {
+                PostDto dto = new PostDto(next % 10 == 0 ? "keep" : "skip", "content");
+                dto.id = next++;
+                return dto;
+            }
+        };
+
+        long startTime = System.nanoTime();
+        long saved = service.ingest(source, dto -> dto.title.startsWith("keep"));
+        long ingestTime = System.nanoTime() - startTime;
+        System.out.println("ingest " + rows + " rows = " + ingestTime / 1_000_000 + "ms");
+
+        assertTrue(saved == rows / 10);
+        assertTrue(service.repository.size() == rows / 10);
+        assertTrue(service.findById(10) != null && service.findById(11) == null);
+
+        // 청크 순서대로 저장되므로 id 순으로 모두 읽힘
+        PostRepository.Page page = service.findAll(0, 3);
+        assertTrue(page.items().get(0).id == 10 && page.items().get(2).id == 30);
+
+        // Stream도 같은 경로를 탐
+        service.repository = new PostRepository();
+        long fromStream = service.ingest(IntStream.rangeClosed(1, 10_000).mapToObj(i -> {
+            PostDto dto = new PostDto("post" + i, "");
+            dto.id = i;
+            return dto;
+        }), dto -> dto.id % 2 == 1);
+        assertTrue(fromStream == 5000);
+        assertTrue(service.findById(9999) != null && service.findById(10_000) == null);
+    }
+
+    // 걸러내기 전에 모든 행을 PostEntity로 만들던 기존 방식
+    private static List<PostEntity> allocateAll(PostDto[] arr, int id) {
+        List<PostEntity> saved = new ArrayList<>();
+        for (int i = 0; i < arr.length; i++) {
+            PostEntity entity = new PostEntity(arr[i].id, arr[i].title, arr[i].content);
+            if (arr[i].id == id) {
+                saved.add(entity);
+            }
+        }
+        return saved;
+    }
 }
@@ -0,0 +1,124 @@
+package ka.chapter2.item7.reference;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+
+public class CallBackRegistry {
+    public enum Strength { WEAK, SOFT }
+
+    @SuppressWarnings("unchecked")
+    private static final Reference<CallBack>[] EMPTY = (Reference<CallBack>[]) new Reference<?>[0];
+
+    private final Strength strength;
+    private final Executor executor;
+    // 수거된 콜백의 참조가 들어오는 큐 : 매번 전체를 훑지 않고 이 큐만 비우면 됨
+    private final ReferenceQueue<CallBack> queue = new ReferenceQueue<>();
+    // 등록/해제 시에만 새 배열을 만들고, 이벤트 발생 시에는 이 배열을 그대로 읽음
+    private volatile Reference<CallBack>[] listeners = EMPTY;
+
+    public CallBackRegistry() {
+        this(Strength.WEAK, null);
+    }
+
+    public CallBackRegistry(Strength strength) {
+        this(strength, null);
+    }
+
+    public CallBackRegistry(Strength strength, Executor executor) {
+        this.strength = Objects.requireNonNull(strength);
+        this.executor = executor;
+    }
+
+    public synchronized void register(CallBack callBack) {
+        Objects.requireNonNull(callBack);
+        Reference<CallBack> ref = strength == Strength.WEAK
+                ? new WeakReference<>(callBack, queue)
+                : new SoftReference<>(callBack, queue);
+
+        Reference<CallBack>[] current = listeners;
+        Reference<CallBack>[] next = Arrays.copyOf(current, current.length + 1);
+        next[current.length] = ref;
+        listeners = next;
+    }
+
+    public synchronized boolean unregister(CallBack callBack) {
+        Reference<CallBack>[] current = listeners;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i].get() == callBack) {
+                listeners = removeAt(current, i);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void dispatch(String msg) {
+        expungeStaleListeners();
+        if (executor == null) {
+            fire(listeners, msg);
+        } else {
+            // 느린 콜백이 이벤트를 발생시킨 스레드를 붙잡지 않도록 실행기에 넘김
+            Reference<CallBack>[] snapshot = listeners;
+            executor.execute(() -> fire(snapshot, msg));
+        }
+    }
+
+    public int size() {
+        expungeStaleListeners();
+        return listeners.length;
+    }
+
+    private static void fire(Reference<CallBack>[] snapshot, String msg) {
+        for (Reference<CallBack> ref : snapshot) {
+            CallBack callBack = ref.get();
+            if (callBack != null) {
+                callBack.onEvent(msg);
+            }
+        }
+    }
+
+    private void expungeStaleListeners() {
+        // 큐가 비어 있다면 락도, 할당도 없이 바로 반환
+        if (queue.poll() == null) {
+            return;
+        }
+        synchronized (this) {
+            while (queue.poll() != null) {
+                // 큐에 남은 참조도 모두 비움
+            }
+            Reference<CallBack>[] current = listeners;
+            int alive = 0;
+            for (Reference<CallBack> ref : current) {
+                if (ref.get() != null) {
+                    alive++;
+                }
+            }
+            if (alive == current.length) {
+                return;
+            }
+
+            @SuppressWarnings("unchecked")
+            Reference<CallBack>[] next = (Reference<CallBack>[]) new Reference<?>[alive];
+            int i = 0;
+            for (Reference<CallBack> ref : current) {
+                if (ref.get() != null) {
+                    next[i++] = ref;
+                }
+            }
+            listeners = next;
+        }
+    }
+
+    private static Reference<CallBack>[] removeAt(Reference<CallBack>[] array, int index) {
+        @SuppressWarnings("unchecked")
+        Reference<CallBack>[] next = (Reference<CallBack>[]) new Reference<?>[array.length - 1];
+        System.arraycopy(array, 0, next, 0, index);
+        System.arraycopy(array, index + 1, next, index, array.length - index - 1);
+        return next;
+    }
+}
@@ -0,0 +1,70 @@
+package ka.chapter2.item7.reference;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CallBackRegistryTest {
+    @Test
+    void weakListenerTest() throws InterruptedException {
+        CallBackRegistry registry = new CallBackRegistry();
+        AtomicInteger received = new AtomicInteger();
+
+        // 강한 참조를 유지하는 콜백과, 등록만 하고 참조를 버린 콜백
+        CallBack kept = msg -> received.incrementAndGet();
+        registry.register(kept);
+        registry.register(msg -> received.incrementAndGet());
+
+        registry.dispatch("Task complete");
+        assertTrue(received.get() == 2);
+
+        // 가비지 컬렉션 이후에는 참조가 남아 있는 콜백만 호출되고 목록에서도 정리됨
+        for (int i = 0; i < 10 && registry.size() > 1; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        received.set(0);
+        registry.dispatch("Task complete");
+
+        assertTrue(received.get() == 1);
+        assertTrue(registry.size() == 1);
+        assertTrue(registry.unregister(kept));
+        assertTrue(registry.size() == 0);
+    }
+
+    @Test
+    void asyncDispatchTest() throws InterruptedException {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        CallBackRegistry registry = new CallBackRegistry(CallBackRegistry.Strength.WEAK, executor);
+        CountDownLatch latch = new CountDownLatch(1);
+
+        CallBack slow = msg -> {
+            sleep(200);
+            latch.countDown();
+        };
+        registry.register(slow);
+
+        // 느린 콜백을 기다리지 않고 바로 반환
+        long startTime = System.nanoTime();
+        registry.dispatch("Task complete");
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+
+        assertTrue(elapsedMillis < 200);
+        assertTrue(latch.await(1, TimeUnit.SECONDS));
+        executor.shutdown();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package ka.chapter2.item7.stack;
+
+import java.util.EmptyStackException;
+
+public class ChunkedStore<E> {
+    static final int CHUNK_SIZE = 64;
+    // 덩어리 경계에서 push/pop이 반복될 때 할당과 해제가 번갈아 일어나지 않도록 남겨두는 빈 덩어리 수
+    private static final int MAX_IDLE_CHUNKS = 1;
+
+    private final Chunk head = new Chunk(null);
+    private Chunk top = head;
+    private int topIndex = 0;
+    private int size = 0;
+    private int chunkCount = 1;
+
+    private static class Chunk {
+        final Object[] items = new Object[CHUNK_SIZE];
+        final Chunk prev;
+        Chunk next;
+
+        Chunk(Chunk prev) {
+            this.prev = prev;
+        }
+    }
+
+    public void push(E e) {
+        if (topIndex == CHUNK_SIZE) {
+            // 배열 전체를 복사하지 않고, 다음 덩어리를 이어 붙이기만 하면 됨
+            if (top.next == null) {
+                top.next = new Chunk(top);
+                chunkCount++;
+            }
+            top = top.next;
+            topIndex = 0;
+        }
+        top.items[topIndex++] = e;
+        size++;
+    }
+
+    public E pop() {
+        if (size == 0) throw new EmptyStackException();
+
+        @SuppressWarnings("unchecked")
+        E result = (E) top.items[--topIndex];
+        top.items[topIndex] = null; // 참조 해제
+        size--;
+
+        if (topIndex == 0 && top.prev != null) {
+            top = top.prev;
+            topIndex = CHUNK_SIZE;
+            releaseIdleChunks();
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        if (index < 0 || index >= size) {
+            return null;
+        }
+        Chunk chunk = head;
+        for (int i = index / CHUNK_SIZE; i > 0; i--) {
+            chunk = chunk.next;
+        }
+        return (E) chunk.items[index % CHUNK_SIZE];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int capacity() {
+        return chunkCount * CHUNK_SIZE;
+    }
+
+    public ChunkedStore<E> copy() {
+        ChunkedStore<E> copy = new ChunkedStore<>();
+        for (Chunk chunk = head; chunk != null; chunk = chunk.next) {
+            int length = chunk == top ? topIndex : CHUNK_SIZE;
+            for (int i = 0; i < length; i++) {
+                @SuppressWarnings("unchecked")
+                E e = (E) chunk.items[i];
+                copy.push(e);
+            }
+            if (chunk == top) {
+                break;
+            }
+        }
+        return copy;
+    }
+
+    private void releaseIdleChunks() {
+        // 사용 중인 덩어리 뒤로 MAX_IDLE_CHUNKS개만 남기고 나머지는 GC가 수거하도록 연결을 끊음
+        Chunk last = top;
+        for (int i = 0; i < MAX_IDLE_CHUNKS && last.next != null; i++) {
+            last = last.next;
+        }
+        for (Chunk c = last.next; c != null; c = c.next) {
+            chunkCount--;
+        }
+        last.next = null;
+    }
+}
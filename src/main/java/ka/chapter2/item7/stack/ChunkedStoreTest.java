@@ -0,0 +1,70 @@
+package ka.chapter2.item7.stack;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ChunkedStoreTest {
+    private static final int BURST = 1_000_000;
+    private static final int IDLE = 100;
+
+    @Test
+    void pushPopTest() {
+        ChunkedStore<Integer> store = new ChunkedStore<>();
+        for (int i = 0; i < 200; i++) {
+            store.push(i);
+        }
+
+        assertTrue(store.get(130) == 130);
+        for (int i = 199; i >= 0; i--) {
+            assertTrue(store.pop() == i);
+        }
+        assertTrue(store.isEmpty());
+        assertNull(store.get(0));
+    }
+
+    @Test
+    void copyTest() {
+        ChunkedStore<Integer> original = new ChunkedStore<>();
+        for (int i = 0; i < 100; i++) {
+            original.push(i);
+        }
+
+        ChunkedStore<Integer> copy = original.copy();
+        copy.pop();
+
+        assertTrue(original.size() == 100);
+        assertTrue(original.pop() == 99);
+    }
+
+    @Test
+    void burstThenIdleFootprintTest() {
+        // 순간적으로 100만 개를 쌓았다가 100개만 남기는 작업
+        Object[] array = new Object[16];
+        int arraySize = 0;
+        ChunkedStore<Object> chunked = new ChunkedStore<>();
+
+        Object element = new Object();
+        for (int i = 0; i < BURST; i++) {
+            if (array.length == arraySize) {
+                array = Arrays.copyOf(array, 2 * arraySize + 1);
+            }
+            array[arraySize++] = element;
+            chunked.push(element);
+        }
+        while (arraySize > IDLE) {
+            array[--arraySize] = null;
+            chunked.pop();
+        }
+
+        System.out.println("array slots = " + array.length + " (" + array.length * 4 / 1024 + "KB)");
+        System.out.println("chunked slots = " + chunked.capacity() + " (" + chunked.capacity() * 4 / 1024 + "KB)");
+
+        // 배열은 최고점의 크기를 계속 유지하지만, 덩어리 방식은 사용 중인 만큼만 남김
+        assertTrue(array.length >= BURST);
+        assertTrue(chunked.capacity() <= IDLE + 2 * ChunkedStore.CHUNK_SIZE);
+    }
+}
@@ -1,38 +1,18 @@
 package ka.chapter2.item7.stack;
 
-import java.util.Arrays;
-import java.util.EmptyStackException;
-
 public class Stack {
-    private Object[] elements;
-    private int size = 0;
-    private static final int DEFAULT_INITIAL_CAPACITY = 16;
-
-    public Stack() {
-        elements = new Object[DEFAULT_INITIAL_CAPACITY];
-    }
+    // 고정 크기 배열을 이어 붙여 사용하므로 커질 때 복사가 없고, 줄어들면 남는 덩어리를 해제함
+    private final ChunkedStore<Object> elements = new ChunkedStore<>();
 
     public void push(Object e) {
-        ensureCapacity();
-        elements[size++] = e;
+        elements.push(e);
     }
 
     public Object pop() {
-        if (size == 0) {
-            throw new EmptyStackException();
-        }
-        Object result = elements[--size];
-        elements[size] = null;
-        return result;
+        return elements.pop();
     }
 
     public Object getByIndex(int i) {
-        return elements[i];
-    }
-
-    private void ensureCapacity() {
-        if (elements.length == size) {
-            elements = Arrays.copyOf(elements, 2 * size + 1);
-        }
+        return elements.get(i);
     }
 }
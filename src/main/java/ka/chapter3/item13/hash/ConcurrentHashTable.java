@@ -0,0 +1,220 @@
+package ka.chapter3.item13.hash;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+
+public class ConcurrentHashTable {
+    // 버킷 i는 locks[i & (LOCK_COUNT - 1)]이 보호함. 테이블 크기가 항상 LOCK_COUNT의 배수이므로
+    // 크기가 늘어나 i가 i 또는 i + oldCapacity로 옮겨가도 같은 락이 보호함
+    private static final int LOCK_COUNT = 16;
+    private static final int DEFAULT_INITIAL_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private final Object[] locks = new Object[LOCK_COUNT];
+    private volatile AtomicReferenceArray<Node> table;
+    private final AtomicInteger size = new AtomicInteger();
+
+    // next는 불변이므로 읽기 스레드는 락 없이 연결 리스트를 따라갈 수 있음
+    private static class Node {
+        final int hash;
+        final Object key;
+        volatile Object value;
+        final Node next;
+
+        Node(int hash, Object key, Object value, Node next) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+            this.next = next;
+        }
+    }
+
+    public ConcurrentHashTable() {
+        this(DEFAULT_INITIAL_CAPACITY);
+    }
+
+    public ConcurrentHashTable(int expectedSize) {
+        for (int i = 0; i < LOCK_COUNT; i++) {
+            locks[i] = new Object();
+        }
+        int capacity = Math.max(DEFAULT_INITIAL_CAPACITY,
+                Integer.highestOneBit((int) Math.ceil(Math.max(expectedSize, 1) / LOAD_FACTOR) - 1) << 1);
+        table = new AtomicReferenceArray<>(capacity);
+    }
+
+    public Object get(Object key) {
+        if (key == null) {
+            return null;
+        }
+        int hash = hash(key);
+        while (true) {
+            AtomicReferenceArray<Node> tab = table;
+            Node node = find(tab, hash, key);
+            Object value = node == null ? null : node.value;
+            // 읽는 도중 크기가 바뀌었다면 기존 테이블의 값은 오래된 값일 수 있으므로 다시 읽음
+            if (tab == table) {
+                return value;
+            }
+        }
+    }
+
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    public Object put(Object key, Object value) {
+        Objects.requireNonNull(value);
+        Object[] old = new Object[1];
+        compute(key, (k, v) -> {
+            old[0] = v;
+            return value;
+        });
+        return old[0];
+    }
+
+    public Object putIfAbsent(Object key, Object value) {
+        Objects.requireNonNull(value);
+        Object[] old = new Object[1];
+        compute(key, (k, v) -> {
+            old[0] = v;
+            return v == null ? value : v;
+        });
+        return old[0];
+    }
+
+    public Object remove(Object key) {
+        if (key == null) {
+            return null;
+        }
+        Object[] old = new Object[1];
+        compute(key, (k, v) -> {
+            old[0] = v;
+            return null;
+        });
+        return old[0];
+    }
+
+    public Object merge(Object key, Object value, BiFunction<Object, Object, Object> remappingFunction) {
+        Objects.requireNonNull(value);
+        Objects.requireNonNull(remappingFunction);
+        return compute(key, (k, v) -> v == null ? value : remappingFunction.apply(v, value));
+    }
+
+    // 같은 락 아래에서 읽고 쓰므로, 같은 키에 대한 compute 호출은 서로 끼어들지 않음
+    // 함수가 null을 반환하면 항목을 지움
+    public Object compute(Object key, BiFunction<Object, Object, Object> remappingFunction) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(remappingFunction);
+        int hash = hash(key);
+        Object newValue;
+        boolean overloaded = false;
+
+        while (true) {
+            AtomicReferenceArray<Node> tab = table;
+            int i = hash & (tab.length() - 1);
+            synchronized (locks[i & (LOCK_COUNT - 1)]) {
+                if (tab != table) {
+                    // 락을 잡기 전에 크기가 바뀌었다면 새 테이블에서 다시 시도
+                    continue;
+                }
+                Node head = tab.get(i);
+                Node node = find(head, hash, key);
+                Object oldValue = node == null ? null : node.value;
+                newValue = remappingFunction.apply(key, oldValue);
+
+                if (node != null && newValue != null) {
+                    node.value = newValue;
+                } else if (node != null) {
+                    tab.set(i, unlink(head, node));
+                    size.decrementAndGet();
+                } else if (newValue != null) {
+                    tab.set(i, new Node(hash, key, newValue, head));
+                    overloaded = size.incrementAndGet() > tab.length() * LOAD_FACTOR;
+                }
+            }
+            break;
+        }
+
+        // 락을 모두 잡아야 하므로, 순서대로 잡을 수 있도록 버킷 락을 놓은 뒤에 크기를 늘림
+        if (overloaded) {
+            resize();
+        }
+        return newValue;
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    public boolean isEmpty() {
+        return size.get() == 0;
+    }
+
+    // 호출 시점의 테이블을 순회하므로, 순회 중의 변경은 반영될 수도 있고 아닐 수도 있음
+    public void forEach(BiConsumer<Object, Object> action) {
+        AtomicReferenceArray<Node> tab = table;
+        for (int i = 0; i < tab.length(); i++) {
+            for (Node node = tab.get(i); node != null; node = node.next) {
+                action.accept(node.key, node.value);
+            }
+        }
+    }
+
+    private void resize() {
+        AtomicReferenceArray<Node> oldTable = table;
+        lockAll(0, oldTable);
+    }
+
+    private void lockAll(int lockIndex, AtomicReferenceArray<Node> oldTable) {
+        if (lockIndex < LOCK_COUNT) {
+            synchronized (locks[lockIndex]) {
+                lockAll(lockIndex + 1, oldTable);
+            }
+            return;
+        }
+        // 모든 락을 잡은 상태. 쓰기는 멈추지만 읽기는 새 테이블이 공개될 때까지 기존 테이블을 계속 읽음
+        if (oldTable != table || size.get() <= oldTable.length() * LOAD_FACTOR) {
+            return;
+        }
+        int oldCapacity = oldTable.length();
+        AtomicReferenceArray<Node> newTable = new AtomicReferenceArray<>(oldCapacity * 2);
+        int mask = oldCapacity * 2 - 1;
+        for (int i = 0; i < oldCapacity; i++) {
+            // 기존 노드는 읽기 스레드가 아직 보고 있을 수 있으므로 고치지 않고 새로 만듦
+            for (Node node = oldTable.get(i); node != null; node = node.next) {
+                int j = node.hash & mask;
+                newTable.set(j, new Node(node.hash, node.key, node.value, newTable.get(j)));
+            }
+        }
+        table = newTable;
+    }
+
+    private static Node find(AtomicReferenceArray<Node> tab, int hash, Object key) {
+        return find(tab.get(hash & (tab.length() - 1)), hash, key);
+    }
+
+    private static Node find(Node head, int hash, Object key) {
+        for (Node node = head; node != null; node = node.next) {
+            if (node.hash == hash && node.key.equals(key)) {
+                return node;
+            }
+        }
+        return null;
+    }
+
+    private static Node unlink(Node head, Node target) {
+        // 지울 노드 앞쪽만 복사하고 뒤쪽은 그대로 이어 붙임
+        if (head == target) {
+            return target.next;
+        }
+        return new Node(head.hash, head.key, head.value, unlink(head.next, target));
+    }
+
+    private static int hash(Object key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
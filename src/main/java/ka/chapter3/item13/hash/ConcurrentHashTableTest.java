@@ -0,0 +1,185 @@
+package ka.chapter3.item13.hash;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ConcurrentHashTableTest {
+    private static final int KEY_RANGE = 10_000;
+    private static final int OPS_PER_THREAD = 200_000;
+
+    @Test
+    void computeMergeTest() {
+        ConcurrentHashTable table = new ConcurrentHashTable();
+        assertNull(table.put("a", 1));
+        assertTrue(table.put("a", 2).equals(1));
+        assertTrue(table.putIfAbsent("a", 3).equals(2));
+
+        table.merge("count", 1, (a, b) -> (Integer) a + (Integer) b);
+        table.merge("count", 1, (a, b) -> (Integer) a + (Integer) b);
+        assertTrue(table.get("count").equals(2));
+
+        // null을 반환하면 항목을 지움
+        table.compute("count", (k, v) -> null);
+        assertFalse(table.containsKey("count"));
+
+        for (int i = 0; i < 1000; i++) {
+            table.put(i, i);
+        }
+        for (int i = 0; i < 1000; i += 2) {
+            table.remove(i);
+        }
+        assertTrue(table.size() == 501);
+        assertTrue(table.get(999).equals(999));
+        assertNull(table.get(998));
+    }
+
+    @Test
+    void mergeStressTest() throws InterruptedException {
+        // 여러 스레드가 같은 키들에 merge로 1씩 더함. 원자적이지 않다면 더한 값이 사라짐
+        int threads = 8;
+        int increments = 50_000;
+        ConcurrentHashTable table = new ConcurrentHashTable();
+
+        runConcurrently(threads, t -> {
+            for (int i = 0; i < increments; i++) {
+                table.merge(i % 100, 1, (a, b) -> (Integer) a + (Integer) b);
+            }
+            return null;
+        });
+
+        int[] total = {0};
+        table.forEach((k, v) -> total[0] += (Integer) v);
+        assertTrue(table.size() == 100);
+        assertTrue(total[0] == threads * increments);
+    }
+
+    @Test
+    void putIfAbsentRaceTest() throws InterruptedException {
+        // 두 스레드가 같은 키를 동시에 넣는 상황을 여러 번 반복해, 승자가 정확히 하나인지 결과를 셈
+        int rounds = 2_000;
+        int[] outcomes = new int[3];
+        for (int round = 0; round < rounds; round++) {
+            ConcurrentHashTable table = new ConcurrentHashTable();
+            AtomicInteger winners = new AtomicInteger();
+            runConcurrently(2, t -> {
+                if (table.putIfAbsent("key", t) == null) {
+                    winners.incrementAndGet();
+                }
+                return null;
+            });
+            outcomes[winners.get()]++;
+        }
+        System.out.println("putIfAbsent winners : 0 = " + outcomes[0] + ", 1 = " + outcomes[1] + ", 2 = " + outcomes[2]);
+        assertTrue(outcomes[1] == rounds);
+    }
+
+    @Test
+    void readDuringResizeTest() throws InterruptedException {
+        // 처음부터 있던 키는 크기가 몇 번 늘어나든 읽기 스레드에게 항상 보여야 함
+        ConcurrentHashTable table = new ConcurrentHashTable();
+        for (int i = 0; i < 100; i++) {
+            table.put(-i - 1, i);
+        }
+
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicInteger misses = new AtomicInteger();
+        Thread reader = new Thread(() -> {
+            while (!done.get()) {
+                for (int i = 0; i < 100; i++) {
+                    Object value = table.get(-i - 1);
+                    if (value == null || (Integer) value != i) {
+                        misses.incrementAndGet();
+                    }
+                }
+            }
+        });
+        reader.start();
+
+        runConcurrently(4, t -> {
+            for (int i = t; i < 400_000; i += 4) {
+                table.put(i, i);
+            }
+            return null;
+        });
+        done.set(true);
+        reader.join();
+
+        assertTrue(misses.get() == 0);
+        assertTrue(table.size() == 400_100);
+    }
+
+    @Test
+    void concurrentHashMapBenchmarkTest() throws InterruptedException {
+        for (int threads : new int[]{1, 4, 16}) {
+            ConcurrentHashTable table = new ConcurrentHashTable();
+            Map<Object, Object> map = new ConcurrentHashMap<>();
+
+            // JIT 워밍업
+            runMixed(threads, table::get, table::merge);
+            runMixed(threads, map::get, map::merge);
+
+            long tableTime = runMixed(threads, table::get, table::merge);
+            long mapTime = runMixed(threads, map::get, map::merge);
+
+            long totalOps = (long) threads * OPS_PER_THREAD;
+            System.out.println(threads + " threads : ConcurrentHashTable = " + totalOps * 1000 / tableTime
+                    + " ops/ms, ConcurrentHashMap = " + totalOps * 1000 / mapTime + " ops/ms");
+        }
+    }
+
+    private interface Merger {
+        Object merge(Object key, Object value, BiFunction<Object, Object, Object> remappingFunction);
+    }
+
+    // 읽기 90%, merge 10%
+    private static long runMixed(int threads, Function<Object, Object> getter, Merger merger) throws InterruptedException {
+        long startTime = System.nanoTime();
+        runConcurrently(threads, t -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < OPS_PER_THREAD; i++) {
+                Integer key = random.nextInt(KEY_RANGE);
+                if (random.nextInt(10) == 0) {
+                    merger.merge(key, 1, (a, b) -> (Integer) a + (Integer) b);
+                } else {
+                    getter.apply(key);
+                }
+            }
+            return null;
+        });
+        return (System.nanoTime() - startTime) / 1000;
+    }
+
+    private static void runConcurrently(int threads, Function<Integer, Void> task) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int id = t;
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                task.apply(id);
+            });
+            workers[t].start();
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+    }
+}
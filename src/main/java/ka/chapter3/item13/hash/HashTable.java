@@ -1,62 +1,202 @@
 package ka.chapter3.item13.hash;
 
-public class HashTable implements Cloneable {
-    private Entry[] buckets;
+import java.util.AbstractMap;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+public class HashTable implements Cloneable, Iterable<Map.Entry<Object, Object>> {
+    // 연결 리스트 대신 키와 값을 각각 평평한 배열에 두고, 충돌 시 다음 칸으로 이동(선형 탐사)
+    private Object[] keys;
+    private Object[] values;
     private int size;
+    private int threshold;
+    private int modCount;
     private static final int DEFAULT_INITIAL_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.6f;
 
     public HashTable() {
-        buckets = new Entry[DEFAULT_INITIAL_CAPACITY];
+        this(DEFAULT_INITIAL_CAPACITY);
+    }
+
+    public HashTable(int expectedSize) {
+        int capacity = tableSizeFor((int) Math.ceil(Math.max(expectedSize, 1) / LOAD_FACTOR));
+        keys = new Object[capacity];
+        values = new Object[capacity];
+        threshold = (int) (capacity * LOAD_FACTOR);
         size = 0;
     }
 
-    private static class Entry {
-        final Object key;
-        Object value;
-        Entry next;
+    public Object get(Object key) {
+        int i = indexOf(key);
+        return i < 0 ? null : values[i];
+    }
+
+    public boolean containsKey(Object key) {
+        return indexOf(key) >= 0;
+    }
 
-        public Entry(Object key, Object value, Entry next) {
-            this.key = key;
-            this.value = value;
-            this.next = next;
+    public Object put(Object key, Object value) {
+        Objects.requireNonNull(key);
+        int mask = keys.length - 1;
+        for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+            Object k = keys[i];
+            if (k == null) {
+                keys[i] = key;
+                values[i] = value;
+                modCount++;
+                if (++size > threshold) {
+                    resize(keys.length * 2);
+                }
+                return null;
+            }
+            if (k.equals(key)) {
+                Object old = values[i];
+                values[i] = value;
+                return old;
+            }
         }
+    }
 
-        Entry deepCopy() {
-            Entry result = new Entry(key, value, next);
-            for (Entry p = result; p.next != null; p = p.next) {
-                p.next = new Entry(p.next.key, p.next.value, p.next.next);
+    public Object remove(Object key) {
+        int i = indexOf(key);
+        if (i < 0) {
+            return null;
+        }
+        Object old = values[i];
+        deleteAt(i);
+        return old;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void forEach(BiConsumer<Object, Object> action) {
+        int expectedModCount = modCount;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                action.accept(keys[i], values[i]);
             }
-            return result;
         }
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    @Override
+    public Iterator<Map.Entry<Object, Object>> iterator() {
+        return new Iterator<>() {
+            private final int expectedModCount = modCount;
+            private int next = advance(0);
+
+            private int advance(int from) {
+                while (from < keys.length && keys[from] == null) {
+                    from++;
+                }
+                return from;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next < keys.length;
+            }
+
+            @Override
+            public Map.Entry<Object, Object> next() {
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Map.Entry<Object, Object> entry = new AbstractMap.SimpleImmutableEntry<>(keys[next], values[next]);
+                next = advance(next + 1);
+                return entry;
+            }
+        };
     }
 
-    public Object get(int idx) {
-        return buckets[idx].value;
+    private int indexOf(Object key) {
+        if (key == null) {
+            return -1;
+        }
+        int mask = keys.length - 1;
+        for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+            Object k = keys[i];
+            if (k == null) {
+                return -1;
+            }
+            if (k.equals(key)) {
+                return i;
+            }
+        }
     }
 
-    public void put(Object key, Object value) {
-        boolean flag = false;
-        for (Entry bucket : buckets) {
-            if (bucket != null && bucket.key == key) {
-                bucket.value = value;
-                flag = true;
+    private void deleteAt(int i) {
+        // 삭제 표시(tombstone)를 남기지 않고, 뒤따르는 항목들을 앞으로 당겨 탐사 경로를 유지
+        int mask = keys.length - 1;
+        int hole = i;
+        for (int j = (i + 1) & mask; keys[j] != null; j = (j + 1) & mask) {
+            int home = hash(keys[j]) & mask;
+            // home이 (hole, j] 구간 밖이라면 j의 항목을 hole로 옮겨도 탐사 경로가 끊기지 않음
+            if (((j - home) & mask) >= ((j - hole) & mask)) {
+                keys[hole] = keys[j];
+                values[hole] = values[j];
+                hole = j;
             }
         }
-        if (!flag) {
-            buckets[size++] = new Entry(key, value, null);
+        keys[hole] = null;
+        values[hole] = null;
+        size--;
+        modCount++;
+    }
+
+    private void resize(int newCapacity) {
+        Object[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new Object[newCapacity];
+        values = new Object[newCapacity];
+        threshold = (int) (newCapacity * LOAD_FACTOR);
+
+        int mask = newCapacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            Object key = oldKeys[i];
+            if (key != null) {
+                int j = hash(key) & mask;
+                while (keys[j] != null) {
+                    j = (j + 1) & mask;
+                }
+                keys[j] = key;
+                values[j] = oldValues[i];
+            }
         }
     }
 
+    private static int hash(Object key) {
+        // 연속된 정수 키가 한곳에 뭉치지 않도록 비트를 섞음
+        int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static int tableSizeFor(int n) {
+        return Math.max(DEFAULT_INITIAL_CAPACITY, Integer.highestOneBit(n - 1) << 1);
+    }
+
     @Override
     public HashTable clone() {
         try {
             HashTable result = (HashTable) super.clone();
-            result.buckets = new Entry[buckets.length];
-            for (int i = 0; i < buckets.length; i++) {
-                if (buckets[i] != null) {
-                    result.buckets[i] = buckets[i].deepCopy();
-                }
-            }
+            // 항목 객체가 없으므로 두 배열만 복사하면 원본과 독립된 테이블이 됨
+            result.keys = keys.clone();
+            result.values = values.clone();
             return result;
         } catch (CloneNotSupportedException e) {
             throw new AssertionError();
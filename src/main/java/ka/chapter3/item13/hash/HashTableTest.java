@@ -2,9 +2,18 @@ package ka.chapter3.item13.hash;
 
 import org.junit.jupiter.api.Test;
 
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class HashTableTest {
+    private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
     @Test
     void hashTestCloneTest() {
         HashTable original = new HashTable();
@@ -14,6 +23,255 @@ public class HashTableTest {
         HashTable clone = original.clone();
         clone.put(2, "Kotlin");
 
-        assertTrue(original.get(1).equals("Java"));
+        assertTrue(original.get(2).equals("Java"));
+    }
+
+    @Test
+    void persistentHashTableCloneTest() {
+        PersistentHashTable original = new PersistentHashTable();
+        for (int i = 0; i < 10_000; i++) {
+            original.put(i, "value" + i);
+        }
+
+        PersistentHashTable clone = original.clone();
+        clone.put(2, "Kotlin");
+        clone.remove(3);
+        original.put(10_000, "new");
+
+        assertTrue(original.get(2).equals("value2"));
+        assertTrue(original.containsKey(3));
+        assertTrue(original.size() == 10_001);
+        assertTrue(clone.get(2).equals("Kotlin"));
+        assertNull(clone.get(3));
+        assertNull(clone.get(10_000));
+        assertTrue(clone.size() == 9_999);
+
+        for (int i = 0; i < 10_000; i++) {
+            clone.remove(i);
+        }
+        assertTrue(clone.isEmpty());
+        assertTrue(original.get(9_999).equals("value9999"));
+    }
+
+    @Test
+    void persistentHashTableCollisionTest() {
+        // "Aa"와 "BB"는 hashCode가 같음
+        PersistentHashTable table = new PersistentHashTable();
+        table.put("Aa", 1);
+        table.put("BB", 2);
+        for (int i = 0; i < 1000; i++) {
+            table.put("key" + i, i);
+        }
+
+        assertTrue(table.get("Aa").equals(1));
+        assertTrue(table.get("BB").equals(2));
+        table.remove("Aa");
+        assertNull(table.get("Aa"));
+        assertTrue(table.get("BB").equals(2));
+
+        int[] count = {0};
+        table.forEach((k, v) -> count[0]++);
+        assertTrue(count[0] == 1001);
+    }
+
+    @Test
+    void cloneBenchmarkTest() {
+        HashTable table = new HashTable();
+        PersistentHashTable persistent = new PersistentHashTable();
+        for (int i = 0; i < 100_000; i++) {
+            table.put(i, i);
+            persistent.put(i, i);
+        }
+
+        long startTime = System.nanoTime();
+        for (int i = 0; i < 100; i++) {
+            table.clone().put(i, -i);
+        }
+        long tableTime = System.nanoTime() - startTime;
+
+        startTime = System.nanoTime();
+        for (int i = 0; i < 100; i++) {
+            persistent.clone().put(i, -i);
+        }
+        long persistentTime = System.nanoTime() - startTime;
+
+        System.out.println("100 clones of 100K : HashTable = " + tableTime / 1_000_000.0
+                + "ms, PersistentHashTable = " + persistentTime / 1_000_000.0 + "ms");
+    }
+
+    @Test
+    void putGetRemoveTest() {
+        HashTable table = new HashTable();
+        for (int i = 0; i < 1000; i++) {
+            table.put(i, "value" + i);
+        }
+
+        // 기본 크기(16)를 넘어도 자동으로 크기를 늘림
+        assertTrue(table.size() == 1000);
+        assertTrue(table.get(999).equals("value999"));
+
+        // == 가 아닌 equals로 키를 비교
+        assertTrue(table.get(new String("key")) == null);
+        table.put("key", "value");
+        assertTrue(table.get(new String("key")).equals("value"));
+
+        for (int i = 0; i < 1000; i += 2) {
+            table.remove(i);
+        }
+        assertNull(table.get(0));
+        assertTrue(table.get(1).equals("value1"));
+        assertTrue(table.size() == 501);
+
+        int count = 0;
+        for (Map.Entry<Object, Object> ignored : table) {
+            count++;
+        }
+        assertTrue(count == 501);
+    }
+
+    @Test
+    void hashMapBenchmarkTest() {
+        for (int n : new int[]{1_000, 100_000, 1_000_000}) {
+            Integer[] keys = new Integer[n];
+            for (int i = 0; i < n; i++) {
+                keys[i] = i * 31;
+            }
+
+            // JIT 워밍업
+            runHashTable(keys);
+            runHashMap(keys);
+
+            long startTime = System.nanoTime();
+            runHashTable(keys);
+            long tableTime = System.nanoTime() - startTime;
+
+            startTime = System.nanoTime();
+            runHashMap(keys);
+            long mapTime = System.nanoTime() - startTime;
+
+            System.out.println(n + " entries : HashTable = " + tableTime / 1_000_000.0
+                    + "ms, HashMap = " + mapTime / 1_000_000.0 + "ms");
+        }
+    }
+
+    private static void runHashTable(Integer[] keys) {
+        HashTable table = new HashTable();
+        for (Integer key : keys) table.put(key, key);
+        for (Integer key : keys) table.get(key);
+        for (Integer key : keys) table.remove(key);
+        assertTrue(table.isEmpty());
+    }
+
+    private static void runHashMap(Integer[] keys) {
+        Map<Object, Object> map = new HashMap<>();
+        for (Integer key : keys) map.put(key, key);
+        for (Integer key : keys) map.get(key);
+        for (Integer key : keys) map.remove(key);
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    void intObjectHashTableTest() {
+        IntObjectHashTable<String> table = new IntObjectHashTable<>();
+        // 빈 칸 표시로 쓰는 0도 키로 사용할 수 있음
+        table.put(0, "zero");
+        for (int i = -500; i < 500; i++) {
+            if (i != 0) table.put(i, "value" + i);
+        }
+
+        assertTrue(table.size() == 1000);
+        assertTrue(table.get(0).equals("zero"));
+        assertTrue(table.get(-500).equals("value-500"));
+        assertNull(table.get(500));
+
+        IntObjectHashTable<String> clone = table.clone();
+        clone.put(1, "Kotlin");
+        clone.remove(0);
+        assertTrue(table.get(1).equals("value1"));
+        assertTrue(table.containsKey(0));
+        assertFalse(clone.containsKey(0));
+
+        for (int i = -500; i < 500; i += 2) {
+            table.remove(i);
+        }
+        int[] count = {0};
+        table.forEach((key, value) -> {
+            assertTrue(value.equals("value" + key));
+            count[0]++;
+        });
+        assertTrue(count[0] == 500);
+    }
+
+    @Test
+    void intIntHashTableTest() {
+        IntIntHashTable table = new IntIntHashTable();
+        for (int i = 0; i < 1000; i++) {
+            table.addTo(i % 100, 1);
+        }
+
+        assertTrue(table.size() == 100);
+        assertTrue(table.get(0) == 10);
+        assertTrue(table.get(99) == 10);
+        assertTrue(table.getOrDefault(100, -1) == -1);
+
+        IntIntHashTable clone = table.clone();
+        clone.put(0, 0);
+        assertTrue(table.get(0) == 10);
+        assertTrue(clone.containsKey(0));
+
+        assertTrue(table.remove(50) == 10);
+        assertFalse(table.containsKey(50));
+        long[] sum = {0};
+        table.forEach((key, value) -> sum[0] += value);
+        assertTrue(sum[0] == 990);
+    }
+
+    @Test
+    void boxingAllocationTest() {
+        int n = 100_000;
+        HashTable boxed = new HashTable(n);
+        IntObjectHashTable<String> primitive = new IntObjectHashTable<>(n);
+        for (int i = 0; i < n; i++) {
+            boxed.put(i * 31, "value");
+            primitive.put(i * 31, "value");
+        }
+
+        // JIT 워밍업
+        lookupBoxed(boxed, n);
+        lookupPrimitive(primitive, n);
+
+        long allocated = THREAD_MX_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+        long startTime = System.nanoTime();
+        int boxedHits = lookupBoxed(boxed, n);
+        long boxedTime = System.nanoTime() - startTime;
+        long boxedBytes = THREAD_MX_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId()) - allocated;
+
+        allocated = THREAD_MX_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+        startTime = System.nanoTime();
+        int primitiveHits = lookupPrimitive(primitive, n);
+        long primitiveTime = System.nanoTime() - startTime;
+        long primitiveBytes = THREAD_MX_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId()) - allocated;
+
+        System.out.println("HashTable = " + boxedTime / 1_000_000.0 + "ms, " + boxedBytes / 1024 + "KB allocated");
+        System.out.println("IntObjectHashTable = " + primitiveTime / 1_000_000.0 + "ms, " + primitiveBytes / 1024 + "KB allocated");
+
+        assertTrue(boxedHits == primitiveHits);
+        assertTrue(primitiveBytes < boxedBytes);
+    }
+
+    private static int lookupBoxed(HashTable table, int n) {
+        int hits = 0;
+        for (int i = 0; i < n; i++) {
+            if (table.get(i * 31) != null) hits++;
+        }
+        return hits;
+    }
+
+    private static int lookupPrimitive(IntObjectHashTable<String> table, int n) {
+        int hits = 0;
+        for (int i = 0; i < n; i++) {
+            if (table.get(i * 31) != null) hits++;
+        }
+        return hits;
     }
 }
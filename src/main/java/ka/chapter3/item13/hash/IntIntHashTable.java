@@ -0,0 +1,198 @@
+package ka.chapter3.item13.hash;
+
+public class IntIntHashTable implements Cloneable {
+    // 키와 값 모두 int[]에 담음. 0은 빈 칸 표시로 쓰고, 키 0은 따로 보관
+    private static final int EMPTY = 0;
+    private static final int DEFAULT_INITIAL_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private int[] keys;
+    private int[] values;
+    private int size;
+    private int threshold;
+    private boolean hasZeroKey;
+    private int zeroValue;
+
+    @FunctionalInterface
+    public interface IntIntConsumer {
+        void accept(int key, int value);
+    }
+
+    public IntIntHashTable() {
+        this(DEFAULT_INITIAL_CAPACITY);
+    }
+
+    public IntIntHashTable(int expectedSize) {
+        int capacity = tableSizeFor((int) Math.ceil(Math.max(expectedSize, 1) / LOAD_FACTOR));
+        keys = new int[capacity];
+        values = new int[capacity];
+        threshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    // 값이 없을 때 돌려줄 null이 없으므로 기본값을 받음
+    public int getOrDefault(int key, int defaultValue) {
+        if (key == EMPTY) {
+            return hasZeroKey ? zeroValue : defaultValue;
+        }
+        int i = indexOf(key);
+        return i < 0 ? defaultValue : values[i];
+    }
+
+    public int get(int key) {
+        return getOrDefault(key, 0);
+    }
+
+    public boolean containsKey(int key) {
+        return key == EMPTY ? hasZeroKey : indexOf(key) >= 0;
+    }
+
+    // 이전 값을 반환하며, 없었다면 0을 반환
+    public int put(int key, int value) {
+        if (key == EMPTY) {
+            int old = zeroValue;
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                size++;
+            }
+            zeroValue = value;
+            return old;
+        }
+        int mask = keys.length - 1;
+        for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+            int k = keys[i];
+            if (k == EMPTY) {
+                keys[i] = key;
+                values[i] = value;
+                if (++size > threshold) {
+                    resize(keys.length * 2);
+                }
+                return 0;
+            }
+            if (k == key) {
+                int old = values[i];
+                values[i] = value;
+                return old;
+            }
+        }
+    }
+
+    // 키가 없다면 delta를 값으로 넣고, 있다면 더한 결과를 반환
+    public int addTo(int key, int delta) {
+        int i = key == EMPTY ? -1 : indexOf(key);
+        if (i < 0) {
+            int current = getOrDefault(key, 0);
+            put(key, current + delta);
+            return current + delta;
+        }
+        return values[i] += delta;
+    }
+
+    public int remove(int key) {
+        if (key == EMPTY) {
+            int old = zeroValue;
+            if (hasZeroKey) {
+                hasZeroKey = false;
+                zeroValue = 0;
+                size--;
+            }
+            return old;
+        }
+        int i = indexOf(key);
+        if (i < 0) {
+            return 0;
+        }
+        int old = values[i];
+        deleteAt(i);
+        return old;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void forEach(IntIntConsumer action) {
+        if (hasZeroKey) {
+            action.accept(EMPTY, zeroValue);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) {
+                action.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    private int indexOf(int key) {
+        int mask = keys.length - 1;
+        for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+            int k = keys[i];
+            if (k == EMPTY) {
+                return -1;
+            }
+            if (k == key) {
+                return i;
+            }
+        }
+    }
+
+    private void deleteAt(int i) {
+        int mask = keys.length - 1;
+        int hole = i;
+        for (int j = (i + 1) & mask; keys[j] != EMPTY; j = (j + 1) & mask) {
+            int home = hash(keys[j]) & mask;
+            if (((j - home) & mask) >= ((j - hole) & mask)) {
+                keys[hole] = keys[j];
+                values[hole] = values[j];
+                hole = j;
+            }
+        }
+        keys[hole] = EMPTY;
+        values[hole] = 0;
+        size--;
+    }
+
+    private void resize(int newCapacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new int[newCapacity];
+        values = new int[newCapacity];
+        threshold = (int) (newCapacity * LOAD_FACTOR);
+
+        int mask = newCapacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            int key = oldKeys[i];
+            if (key != EMPTY) {
+                int j = hash(key) & mask;
+                while (keys[j] != EMPTY) {
+                    j = (j + 1) & mask;
+                }
+                keys[j] = key;
+                values[j] = oldValues[i];
+            }
+        }
+    }
+
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static int tableSizeFor(int n) {
+        return Math.max(DEFAULT_INITIAL_CAPACITY, Integer.highestOneBit(n - 1) << 1);
+    }
+
+    @Override
+    public IntIntHashTable clone() {
+        try {
+            IntIntHashTable result = (IntIntHashTable) super.clone();
+            result.keys = keys.clone();
+            result.values = values.clone();
+            return result;
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError();
+        }
+    }
+}
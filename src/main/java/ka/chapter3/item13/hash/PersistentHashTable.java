@@ -0,0 +1,296 @@
+package ka.chapter3.item13.hash;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+public class PersistentHashTable implements Cloneable {
+    // 노드는 한 번 만들어지면 바뀌지 않으므로, 복제본과 원본이 같은 트리를 그대로 공유할 수 있음
+    private Node root = BitmapNode.EMPTY;
+    private int size;
+
+    private static final Object NOT_FOUND = new Object();
+
+    private static class Result {
+        Object oldValue;
+        boolean found;
+    }
+
+    private interface Node {
+        Object get(int shift, int hash, Object key);
+
+        Node put(int shift, int hash, Object key, Object value, Result result);
+
+        Node remove(int shift, int hash, Object key, Result result);
+
+        void forEach(BiConsumer<Object, Object> action);
+    }
+
+    public Object get(Object key) {
+        if (key == null) {
+            return null;
+        }
+        Object value = root.get(0, hash(key), key);
+        return value == NOT_FOUND ? null : value;
+    }
+
+    public boolean containsKey(Object key) {
+        return key != null && root.get(0, hash(key), key) != NOT_FOUND;
+    }
+
+    public Object put(Object key, Object value) {
+        Objects.requireNonNull(key);
+        Result result = new Result();
+        // 키가 들어갈 경로의 노드만 새로 만들고 나머지 가지는 그대로 공유
+        root = root.put(0, hash(key), key, value, result);
+        if (!result.found) {
+            size++;
+        }
+        return result.oldValue;
+    }
+
+    public Object remove(Object key) {
+        if (key == null) {
+            return null;
+        }
+        Result result = new Result();
+        Node newRoot = root.remove(0, hash(key), key, result);
+        root = newRoot == null ? BitmapNode.EMPTY : newRoot;
+        if (result.found) {
+            size--;
+        }
+        return result.oldValue;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void forEach(BiConsumer<Object, Object> action) {
+        root.forEach(action);
+    }
+
+    @Override
+    public PersistentHashTable clone() {
+        try {
+            // 루트 참조만 복사하므로 O(1)
+            return (PersistentHashTable) super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError();
+        }
+    }
+
+    private static int hash(Object key) {
+        if (key == null) {
+            return 0;
+        }
+        int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    // 해시의 5비트씩을 사용해 32갈래로 나뉘는 노드. 비트맵으로 실제 존재하는 칸만 배열에 담음
+    private static class BitmapNode implements Node {
+        static final BitmapNode EMPTY = new BitmapNode(0, new Object[0]);
+
+        final int bitmap;
+        // [키, 값] 쌍의 배열. 키가 null이면 값 자리에 하위 노드가 들어 있음
+        final Object[] array;
+
+        BitmapNode(int bitmap, Object[] array) {
+            this.bitmap = bitmap;
+            this.array = array;
+        }
+
+        @Override
+        public Object get(int shift, int hash, Object key) {
+            int bit = bitOf(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return NOT_FOUND;
+            }
+            int idx = index(bit);
+            Object k = array[2 * idx];
+            Object v = array[2 * idx + 1];
+            if (k == null) {
+                return ((Node) v).get(shift + 5, hash, key);
+            }
+            return key.equals(k) ? v : NOT_FOUND;
+        }
+
+        @Override
+        public Node put(int shift, int hash, Object key, Object value, Result result) {
+            int bit = bitOf(hash, shift);
+            int idx = index(bit);
+
+            if ((bitmap & bit) == 0) {
+                Object[] newArray = new Object[array.length + 2];
+                System.arraycopy(array, 0, newArray, 0, 2 * idx);
+                newArray[2 * idx] = key;
+                newArray[2 * idx + 1] = value;
+                System.arraycopy(array, 2 * idx, newArray, 2 * idx + 2, array.length - 2 * idx);
+                return new BitmapNode(bitmap | bit, newArray);
+            }
+
+            Object k = array[2 * idx];
+            Object v = array[2 * idx + 1];
+            if (k == null) {
+                Node child = ((Node) v).put(shift + 5, hash, key, value, result);
+                return child == v ? this : with(2 * idx + 1, child);
+            }
+            if (key.equals(k)) {
+                result.found = true;
+                result.oldValue = v;
+                return v == value ? this : with(2 * idx + 1, value);
+            }
+
+            // 같은 칸을 쓰는 다른 키가 있다면 한 단계 아래 노드로 둘을 함께 내림
+            Node child = createNode(shift + 5, k, v, hash, key, value);
+            Object[] newArray = array.clone();
+            newArray[2 * idx] = null;
+            newArray[2 * idx + 1] = child;
+            return new BitmapNode(bitmap, newArray);
+        }
+
+        @Override
+        public Node remove(int shift, int hash, Object key, Result result) {
+            int bit = bitOf(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return this;
+            }
+            int idx = index(bit);
+            Object k = array[2 * idx];
+            Object v = array[2 * idx + 1];
+
+            if (k == null) {
+                Node child = ((Node) v).remove(shift + 5, hash, key, result);
+                if (child == v) {
+                    return this;
+                }
+                if (child != null) {
+                    return with(2 * idx + 1, child);
+                }
+            } else if (key.equals(k)) {
+                result.found = true;
+                result.oldValue = v;
+            } else {
+                return this;
+            }
+
+            if (bitmap == bit) {
+                return null;
+            }
+            Object[] newArray = new Object[array.length - 2];
+            System.arraycopy(array, 0, newArray, 0, 2 * idx);
+            System.arraycopy(array, 2 * idx + 2, newArray, 2 * idx, array.length - 2 * idx - 2);
+            return new BitmapNode(bitmap & ~bit, newArray);
+        }
+
+        @Override
+        public void forEach(BiConsumer<Object, Object> action) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (array[i] == null) {
+                    ((Node) array[i + 1]).forEach(action);
+                } else {
+                    action.accept(array[i], array[i + 1]);
+                }
+            }
+        }
+
+        private BitmapNode with(int i, Object o) {
+            Object[] newArray = array.clone();
+            newArray[i] = o;
+            return new BitmapNode(bitmap, newArray);
+        }
+
+        private int index(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        private static int bitOf(int hash, int shift) {
+            return 1 << ((hash >>> shift) & 31);
+        }
+
+        private static Node createNode(int shift, Object k1, Object v1, int h2, Object k2, Object v2) {
+            int h1 = hash(k1);
+            if (h1 == h2) {
+                return new CollisionNode(h1, new Object[]{k1, v1, k2, v2});
+            }
+            Result ignored = new Result();
+            return EMPTY.put(shift, h1, k1, v1, ignored).put(shift, h2, k2, v2, ignored);
+        }
+    }
+
+    // 해시값 32비트가 모두 같은 키들을 모아두는 노드
+    private static class CollisionNode implements Node {
+        final int hash;
+        final Object[] array;
+
+        CollisionNode(int hash, Object[] array) {
+            this.hash = hash;
+            this.array = array;
+        }
+
+        @Override
+        public Object get(int shift, int hash, Object key) {
+            int i = find(key);
+            return i < 0 ? NOT_FOUND : array[i + 1];
+        }
+
+        @Override
+        public Node put(int shift, int hash, Object key, Object value, Result result) {
+            if (hash != this.hash) {
+                // 해시가 다른 키라면 이 노드를 한 단계 아래로 내리고 그 위에 갈래 노드를 만듦
+                BitmapNode parent = new BitmapNode(BitmapNode.bitOf(this.hash, shift), new Object[]{null, this});
+                return parent.put(shift, hash, key, value, result);
+            }
+            int i = find(key);
+            if (i >= 0) {
+                result.found = true;
+                result.oldValue = array[i + 1];
+                Object[] newArray = array.clone();
+                newArray[i + 1] = value;
+                return new CollisionNode(hash, newArray);
+            }
+            Object[] newArray = Arrays.copyOf(array, array.length + 2);
+            newArray[array.length] = key;
+            newArray[array.length + 1] = value;
+            return new CollisionNode(hash, newArray);
+        }
+
+        @Override
+        public Node remove(int shift, int hash, Object key, Result result) {
+            int i = find(key);
+            if (i < 0) {
+                return this;
+            }
+            result.found = true;
+            result.oldValue = array[i + 1];
+            if (array.length == 2) {
+                return null;
+            }
+            Object[] newArray = new Object[array.length - 2];
+            System.arraycopy(array, 0, newArray, 0, i);
+            System.arraycopy(array, i + 2, newArray, i, array.length - i - 2);
+            return new CollisionNode(hash, newArray);
+        }
+
+        @Override
+        public void forEach(BiConsumer<Object, Object> action) {
+            for (int i = 0; i < array.length; i += 2) {
+                action.accept(array[i], array[i + 1]);
+            }
+        }
+
+        private int find(Object key) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (key.equals(array[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package ka.chapter3.item13.stack;
+
+import java.util.EmptyStackException;
+
+public class PersistentStack implements Cloneable {
+    static final int CHUNK_SIZE = 32;
+
+    // 덩어리를 아래쪽(next)으로 연결한 리스트. 아래 덩어리는 복제본과 원본이 함께 공유함
+    private Chunk top;
+    private int topCount;
+    private int size;
+    // 이 스택이 직접 수정해도 되는 덩어리인지 판별하는 표식. 복제 시 양쪽 모두 새 표식을 받음
+    private Object editToken = new Object();
+
+    private static class Chunk {
+        final Object[] items;
+        final Chunk next;
+        final Object owner;
+
+        Chunk(Object[] items, Chunk next, Object owner) {
+            this.items = items;
+            this.next = next;
+            this.owner = owner;
+        }
+    }
+
+    public void push(Object e) {
+        if (top == null || topCount == CHUNK_SIZE) {
+            top = new Chunk(new Object[CHUNK_SIZE], top, editToken);
+            topCount = 0;
+        } else if (top.owner != editToken) {
+            // 공유 중인 덩어리라면 맨 위 덩어리 하나만 복사한 뒤 씀
+            top = new Chunk(top.items.clone(), top.next, editToken);
+        }
+        top.items[topCount++] = e;
+        size++;
+    }
+
+    public Object pop() {
+        if (size == 0) throw new EmptyStackException();
+
+        Object result = top.items[--topCount];
+        if (top.owner == editToken) {
+            top.items[topCount] = null; // 참조 해제
+        }
+        size--;
+
+        if (topCount == 0) {
+            top = top.next;
+            topCount = top == null ? 0 : CHUNK_SIZE;
+        }
+        return result;
+    }
+
+    public Object peek() {
+        if (size == 0) throw new EmptyStackException();
+        return top.items[topCount - 1];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    protected PersistentStack clone() {
+        try {
+            PersistentStack cloned = (PersistentStack) super.clone();
+            // 덩어리는 그대로 공유하고, 양쪽 모두 이후의 쓰기에서 맨 위 덩어리를 복사하도록 표식만 바꿈 - O(1)
+            editToken = new Object();
+            cloned.editToken = new Object();
+            return cloned;
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError();
+        }
+    }
+}
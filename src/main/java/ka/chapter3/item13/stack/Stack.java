@@ -1,40 +1,27 @@
 package ka.chapter3.item13.stack;
 
-import java.util.Arrays;
-import java.util.EmptyStackException;
+import ka.chapter2.item7.stack.ChunkedStore;
 
 public class Stack implements Cloneable{
-    private Object[] elements;
-    private int size = 0;
-    private static final int DEFAULT_INITIAL_CAPACITY = 16;
+    private ChunkedStore<Object> elements;
 
     public Stack() {
-        this.elements = new Object[DEFAULT_INITIAL_CAPACITY];
+        this.elements = new ChunkedStore<>();
     }
 
     public void push(Object e) {
-        ensureCapacity();
-        elements[size++] = e;
+        elements.push(e);
     }
 
     public Object pop() {
-        if(size == 0) throw new EmptyStackException();
-        Object result = elements[--size];
-        elements[size] = null;
-        return result;
-    }
-
-    private void ensureCapacity() {
-        if (elements.length == size) {
-            elements = Arrays.copyOf(elements, 2 * size + 1);
-        }
+        return elements.pop();
     }
 
     @Override
     protected Stack clone() {
         try {
             Stack cloned = (Stack) super.clone();
-            cloned.elements = elements.clone();
+            cloned.elements = elements.copy();
             return cloned;
         } catch (CloneNotSupportedException e) {
             throw new AssertionError();
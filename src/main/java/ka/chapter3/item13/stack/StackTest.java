@@ -17,4 +17,54 @@ public class StackTest {
 
         assertTrue((Integer) originalStack.pop() == 40);
     }
-}
\ No newline at end of file
+
+    @Test
+    void persistentStackCloneTest() {
+        PersistentStack original = new PersistentStack();
+        for (int i = 0; i < 100; i++) {
+            original.push(i);
+        }
+
+        PersistentStack clone = original.clone();
+        clone.pop();
+        clone.push(-1);
+        original.push(100);
+
+        // 서로의 쓰기가 영향을 주지 않음
+        assertTrue((Integer) clone.pop() == -1);
+        assertTrue((Integer) clone.pop() == 98);
+        assertTrue((Integer) original.pop() == 100);
+        assertTrue((Integer) original.pop() == 99);
+
+        while (!clone.isEmpty()) {
+            clone.pop();
+        }
+        assertTrue(original.size() == 99);
+        assertTrue((Integer) original.peek() == 98);
+    }
+
+    @Test
+    void cloneBenchmarkTest() {
+        Stack stack = new Stack();
+        PersistentStack persistent = new PersistentStack();
+        for (int i = 0; i < 100_000; i++) {
+            stack.push(i);
+            persistent.push(i);
+        }
+
+        long startTime = System.nanoTime();
+        for (int i = 0; i < 100; i++) {
+            stack.clone();
+        }
+        long stackTime = System.nanoTime() - startTime;
+
+        startTime = System.nanoTime();
+        for (int i = 0; i < 100; i++) {
+            persistent.clone().push(i);
+        }
+        long persistentTime = System.nanoTime() - startTime;
+
+        System.out.println("100 clones of 100K : Stack = " + stackTime / 1_000_000.0
+                + "ms, PersistentStack = " + persistentTime / 1_000_000.0 + "ms");
+    }
+}
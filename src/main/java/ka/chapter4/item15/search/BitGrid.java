@@ -0,0 +1,215 @@
+package ka.chapter4.item15.search;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class BitGrid implements AutoCloseable {
+    // 파일 앞 16바이트 : MAGIC, height, width, 예약. 그 뒤로 행마다 64칸씩 묶은 long이 이어짐
+    private static final int MAGIC = 0x42475244;
+    private static final int HEADER_BYTES = 16;
+    // 한 번에 매핑할 수 있는 크기가 2GB 미만이므로 1GB(2^27개의 long)씩 나눠서 매핑
+    static final int DEFAULT_SEGMENT_SHIFT = 27;
+
+    private final int H, W;
+    private final int wordsPerRow;
+    // 구간 하나에 든 long의 수는 2^segmentShift
+    private final int segmentShift;
+    private final long segmentMask;
+    // 힙에 올린 격자라면 words, 파일을 매핑한 격자라면 segments를 사용
+    private final long[] words;
+    private LongBuffer[] segments;
+    // 매핑 해제용으로 들고 있는 원래 버퍼. segments는 이 버퍼들의 long 뷰
+    private MappedByteBuffer[] mapped;
+
+    public BitGrid(int height, int width) {
+        this(height, width, new long[checkedWordCount(height, width)], null, null, DEFAULT_SEGMENT_SHIFT);
+    }
+
+    private BitGrid(int height, int width, long[] words, LongBuffer[] segments, MappedByteBuffer[] mapped, int segmentShift) {
+        this.H = height;
+        this.W = width;
+        this.wordsPerRow = (width + 63) >>> 6;
+        this.segmentShift = segmentShift;
+        this.segmentMask = (1L << segmentShift) - 1;
+        this.words = words;
+        this.segments = segments;
+        this.mapped = mapped;
+    }
+
+    // 파일을 복사하지 않고 그대로 매핑해서 읽기 전용으로 엶. 격자가 힙보다 커도 필요한 페이지만 메모리에 올라옴
+    public static BitGrid load(Path path) throws IOException {
+        return load(path, DEFAULT_SEGMENT_SHIFT);
+    }
+
+    // 구간 크기를 줄이면 작은 파일로도 여러 구간에 걸친 매핑을 확인할 수 있음
+    static BitGrid load(Path path, int segmentShift) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            channel.read(header, 0);
+            header.flip();
+            if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC) {
+                throw new IOException("not a bit grid file: " + path);
+            }
+            int height = header.getInt();
+            int width = header.getInt();
+            return map(channel, FileChannel.MapMode.READ_ONLY, height, width, segmentShift);
+        }
+    }
+
+    // 모두 벽(0)인 격자 파일을 만들고 쓰기 가능하게 매핑. 방문 표시처럼 힙에 두기 어려운 큰 비트맵에도 씀
+    public static BitGrid create(Path path, int height, int width) throws IOException {
+        return create(path, height, width, DEFAULT_SEGMENT_SHIFT);
+    }
+
+    static BitGrid create(Path path, int height, int width, int segmentShift) throws IOException {
+        long wordCount = (long) height * ((width + 63) >>> 6);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(height).putInt(width).putInt(0).flip();
+            channel.write(header, 0);
+            // 마지막 바이트만 써서 파일 크기를 맞춤. 나머지는 읽기 전까지 디스크를 차지하지 않음
+            channel.write(ByteBuffer.allocate(1), HEADER_BYTES + wordCount * Long.BYTES - 1);
+            return map(channel, FileChannel.MapMode.READ_WRITE, height, width, segmentShift);
+        }
+    }
+
+    public void save(Path path) throws IOException {
+        try (BitGrid file = create(path, H, W)) {
+            for (int y = 0; y < H; y++) {
+                for (int i = 0; i < wordsPerRow; i++) {
+                    long word = word(y, i);
+                    if (word != 0L) {
+                        file.setWord(y, i, word);
+                    }
+                }
+            }
+        }
+    }
+
+    private static BitGrid map(FileChannel channel, FileChannel.MapMode mode, int height, int width, int segmentShift)
+            throws IOException {
+        if (height <= 0 || width <= 0) {
+            throw new IOException("grid size out of range: " + height + "x" + width);
+        }
+        if (segmentShift < 0 || segmentShift > DEFAULT_SEGMENT_SHIFT) {
+            throw new IllegalArgumentException("segmentShift out of range: " + segmentShift);
+        }
+        long segmentWords = 1L << segmentShift;
+        long wordCount = (long) height * ((width + 63) >>> 6);
+        int segmentCount = Math.toIntExact((wordCount + segmentWords - 1) >>> segmentShift);
+        LongBuffer[] segments = new LongBuffer[segmentCount];
+        MappedByteBuffer[] mapped = new MappedByteBuffer[segmentCount];
+        for (int s = 0; s < segmentCount; s++) {
+            long first = (long) s << segmentShift;
+            long length = Math.min(segmentWords, wordCount - first);
+            mapped[s] = channel.map(mode, HEADER_BYTES + first * Long.BYTES, length * Long.BYTES);
+            segments[s] = mapped[s].duplicate().order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+        }
+        return new BitGrid(height, width, null, segments, mapped, segmentShift);
+    }
+
+    // 매핑은 GC가 버퍼를 거둘 때까지 풀리지 않으므로, 파일을 지우거나 덮어쓰기 전에 직접 해제
+    // 해제한 뒤에는 이 격자를 쓸 수 없음. 힙 격자라면 아무것도 하지 않음
+    @Override
+    public void close() {
+        if (mapped == null) {
+            return;
+        }
+        MappedByteBuffer[] buffers = mapped;
+        mapped = null;
+        segments = null;
+        for (MappedByteBuffer buffer : buffers) {
+            unmap(buffer);
+        }
+    }
+
+    private static void unmap(MappedByteBuffer buffer) {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            invokeCleaner.invoke(theUnsafe.get(null), buffer);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // 해제할 수 없는 JVM이라면 GC에 맡김
+        }
+    }
+
+    public int height() {
+        return H;
+    }
+
+    public int width() {
+        return W;
+    }
+
+    public int wordsPerRow() {
+        return wordsPerRow;
+    }
+
+    public boolean get(int y, int x) {
+        return (word(y, x >>> 6) & (1L << x)) != 0;
+    }
+
+    public void set(int y, int x, boolean value) {
+        long word = word(y, x >>> 6);
+        setWord(y, x >>> 6, value ? word | (1L << x) : word & ~(1L << x));
+    }
+
+    // y행의 i번째 long. x = 64 * i + b 칸이 b번째 비트에 들어 있음
+    public long word(int y, int i) {
+        long index = (long) y * wordsPerRow + i;
+        if (words != null) {
+            return words[(int) index];
+        }
+        return segments[(int) (index >>> segmentShift)].get((int) (index & segmentMask));
+    }
+
+    public void setWord(int y, int i, long word) {
+        long index = (long) y * wordsPerRow + i;
+        if (words != null) {
+            words[(int) index] = word;
+        } else {
+            segments[(int) (index >>> segmentShift)].put((int) (index & segmentMask), word);
+        }
+    }
+
+    // 1인 칸의 수. 칸을 하나씩 보지 않고 long 단위로 센다
+    public long count() {
+        long count = 0;
+        for (int y = 0; y < H; y++) {
+            for (int i = 0; i < wordsPerRow; i++) {
+                count += Long.bitCount(word(y, i));
+            }
+        }
+        return count;
+    }
+
+    public void clear() {
+        for (int y = 0; y < H; y++) {
+            for (int i = 0; i < wordsPerRow; i++) {
+                // 이미 0인 곳은 쓰지 않아서, 매핑된 파일의 손대지 않은 페이지는 그대로 둠
+                if (word(y, i) != 0L) {
+                    setWord(y, i, 0L);
+                }
+            }
+        }
+    }
+
+    private static int checkedWordCount(int height, int width) {
+        long wordCount = (long) height * ((width + 63) >>> 6);
+        if (height <= 0 || width <= 0 || wordCount > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("grid size out of range: " + height + "x" + width);
+        }
+        return (int) wordCount;
+    }
+}
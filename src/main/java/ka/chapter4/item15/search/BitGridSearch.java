@@ -0,0 +1,142 @@
+package ka.chapter4.item15.search;
+
+import java.util.Arrays;
+
+public class BitGridSearch {
+    private static final int[] DX = {1, 0, -1, 0, -1, 1, -1, 1};
+    private static final int[] DY = {0, -1, 0, 1, -1, -1, 1, 1};
+
+    private final BitGrid map;
+    private final BitGrid visited;
+    private final int H, W;
+    private final int maxDir;
+    // 칸 번호(y * W + x)를 담는 원형 큐. 격자가 커서 칸 번호가 int를 넘을 수 있으므로 long을 씀
+    private long[] queue = new long[1024];
+
+    public BitGridSearch(BitGrid map, int maxDir) {
+        this(map, new BitGrid(map.height(), map.width()), maxDir);
+    }
+
+    // 힙에 방문 표시를 둘 수 없을 만큼 큰 격자라면 BitGrid.create로 만든 파일 매핑을 visited로 넘김
+    public BitGridSearch(BitGrid map, BitGrid visited, int maxDir) {
+        if (visited.height() != map.height() || visited.width() != map.width()) {
+            throw new IllegalArgumentException("visited size differs from map");
+        }
+        if (maxDir != 4 && maxDir != 8) {
+            throw new IllegalArgumentException("maxDir must be 4 or 8");
+        }
+        this.map = map;
+        this.visited = visited;
+        this.H = map.height();
+        this.W = map.width();
+        this.maxDir = maxDir;
+    }
+
+    public boolean isVisited(int y, int x) {
+        return visited.get(y, x);
+    }
+
+    public void clearVisited() {
+        visited.clear();
+    }
+
+    // 시작 칸과 이어진 1인 칸을 모두 방문하고, 방문한 칸의 수를 반환
+    public long bfs(int y, int x) {
+        if (!map.get(y, x) || visited.get(y, x)) {
+            return 0;
+        }
+        int head = 0, tail = 0, mask = queue.length - 1;
+        long count = 1;
+        visited.set(y, x, true);
+        queue[tail++] = (long) y * W + x;
+
+        while (head != tail) {
+            long cur = queue[head];
+            head = (head + 1) & mask;
+            int cx = (int) (cur % W);
+            int cy = (int) (cur / W);
+
+            for (int i = 0; i < maxDir; i++) {
+                int nx = cx + DX[i];
+                int ny = cy + DY[i];
+
+                if (nx >= 0 && nx < W && ny >= 0 && ny < H && map.get(ny, nx) && !visited.get(ny, nx)) {
+                    visited.set(ny, nx, true);
+                    queue[tail] = (long) ny * W + nx;
+                    tail = (tail + 1) & mask;
+                    count++;
+                    if (tail == head) {
+                        head = growQueue(head);
+                        tail = queue.length / 2;
+                        mask = queue.length - 1;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    // bfs와 같은 칸을 방문하지만 queue를 스택으로 씀. 재귀가 아니므로 큰 섬에서도 스레드 스택이 넘치지 않음
+    public long dfs(int y, int x) {
+        if (!map.get(y, x) || visited.get(y, x)) {
+            return 0;
+        }
+        int top = 0;
+        long count = 1;
+        visited.set(y, x, true);
+        queue[top++] = (long) y * W + x;
+
+        while (top > 0) {
+            long cur = queue[--top];
+            int cx = (int) (cur % W);
+            int cy = (int) (cur / W);
+
+            for (int i = 0; i < maxDir; i++) {
+                int nx = cx + DX[i];
+                int ny = cy + DY[i];
+
+                if (nx >= 0 && nx < W && ny >= 0 && ny < H && map.get(ny, nx) && !visited.get(ny, nx)) {
+                    visited.set(ny, nx, true);
+                    if (top == queue.length) {
+                        queue = Arrays.copyOf(queue, top * 2);
+                    }
+                    queue[top++] = (long) ny * W + nx;
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    // 섬의 수. 행을 long 단위로 훑으면서 "1이면서 아직 방문하지 않은" 비트가 하나도 없는 64칸은 통째로 건너뜀
+    public long countIslands() {
+        long count = 0;
+        int wordsPerRow = map.wordsPerRow();
+        for (int y = 0; y < H; y++) {
+            for (int i = 0; i < wordsPerRow; i++) {
+                long land = map.word(y, i);
+                if (land == 0L) {
+                    continue;
+                }
+                long unvisited = land & ~visited.word(y, i);
+                while (unvisited != 0L) {
+                    int x = (i << 6) + Long.numberOfTrailingZeros(unvisited);
+                    bfs(y, x);
+                    count++;
+                    // 방금 탐색한 섬이 같은 long의 다른 칸도 방문했을 수 있으므로 다시 읽음
+                    unvisited = land & ~visited.word(y, i);
+                }
+            }
+        }
+        return count;
+    }
+
+    private int growQueue(int head) {
+        long[] grown = new long[queue.length * 2];
+        int firstPart = queue.length - head;
+        System.arraycopy(queue, head, grown, 0, firstPart);
+        System.arraycopy(queue, 0, grown, firstPart, head);
+        queue = grown;
+        return 0;
+    }
+}
@@ -0,0 +1,170 @@
+package ka.chapter4.item15.search;
+
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BitGridTest {
+    @Test
+    void mappedRoundTripTest() throws IOException {
+        Random random = new Random(11);
+        Path file = Files.createTempFile("grid", ".bits");
+        try {
+            for (int maxDir : new int[]{4, 8}) {
+                GridSearch grid = new GridSearch(300, 200, maxDir);
+                BitGrid bits = new BitGrid(300, 200);
+                for (int y = 0; y < 300; y++) {
+                    for (int x = 0; x < 200; x++) {
+                        boolean land = random.nextInt(2) == 0;
+                        grid.set(y, x, land ? 1 : 0);
+                        bits.set(y, x, land);
+                    }
+                }
+                bits.save(file);
+
+                // 파일을 매핑한 격자 위에서 바로 탐색. 다음 반복에서 파일을 덮어쓰기 전에 매핑을 해제
+                try (BitGrid mapped = BitGrid.load(file)) {
+                    assertTrue(mapped.count() == bits.count());
+                    assertTrue(mapped.get(299, 199) == (grid.get(299, 199) == 1));
+
+                    BitGridSearch search = new BitGridSearch(mapped, maxDir);
+                    assertTrue(search.countIslands() == floodFillCount(grid));
+                }
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void multiSegmentTest() throws IOException {
+        // 구간을 long 16개(1024칸)로 줄여서, 작은 파일로도 수십 개의 매핑 구간에 걸친 격자를 만듦
+        // 한 행이 long 6개이므로 구간 경계가 행 중간에도 놓임
+        int height = 300, width = 330, segmentShift = 4;
+        Random random = new Random(7);
+        GridSearch grid = new GridSearch(height, width, 4);
+        Path file = Files.createTempFile("grid", ".bits");
+        try {
+            try (BitGrid bits = BitGrid.create(file, height, width, segmentShift)) {
+                for (int y = 0; y < height; y++) {
+                    for (int x = 0; x < width; x++) {
+                        boolean land = random.nextInt(2) == 0;
+                        grid.set(y, x, land ? 1 : 0);
+                        bits.set(y, x, land);
+                    }
+                }
+            }
+
+            try (BitGrid mapped = BitGrid.load(file, segmentShift)) {
+                for (int y = 0; y < height; y++) {
+                    for (int x = 0; x < width; x++) {
+                        assertTrue(mapped.get(y, x) == (grid.get(y, x) == 1));
+                    }
+                }
+                BitGridSearch bfs = new BitGridSearch(mapped, 4);
+                assertTrue(bfs.countIslands() == floodFillCount(grid));
+
+                // DFS도 섬마다 GridSearch와 같은 수의 칸을 방문함
+                BitGridSearch dfs = new BitGridSearch(mapped, 4);
+                grid.clearVisited();
+                for (int y = 0; y < height; y++) {
+                    for (int x = 0; x < width; x++) {
+                        assertTrue(dfs.dfs(y, x) == grid.dfs(y, x));
+                    }
+                }
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    @Disabled("임시 파일을 약 2.2GB 쓰고 92억 칸을 훑는 수동 벤치마크")
+    void largerThanHeapTest() throws IOException {
+        // 지도와 방문 표시 모두 약 1GB짜리 파일 매핑. 합치면 힙 최대 크기보다 큼
+        int height = 70_000, width = 131_072;
+        Path mapFile = Files.createTempFile("map", ".bits");
+        Path visitedFile = Files.createTempFile("visited", ".bits");
+        try (BitGrid map = BitGrid.create(mapFile, height, width);
+             BitGrid visited = BitGrid.create(visitedFile, height, width)) {
+            // 멀리 떨어진 네 섬. 세로로 놓인 섬은 첫 번째 매핑 구간의 끝, 65536행의 섬은 두 번째 구간의 시작에 놓임
+            for (int x = 0; x < 10; x++) {
+                map.set(0, x, true);
+                map.set(65_536, width - 1 - x, true);
+                map.set(65_535 - x, 5, true);
+            }
+            map.set(height - 1, width - 1, true);
+
+            BitGridSearch search = new BitGridSearch(map, visited, 4);
+
+            long startTime = System.nanoTime();
+            long islands = search.countIslands();
+            long time = System.nanoTime() - startTime;
+
+            System.out.println((long) height * width + " cells (" + 2 * Files.size(mapFile) / 1024 / 1024
+                    + "MB mapped, max heap " + Runtime.getRuntime().maxMemory() / 1024 / 1024 + "MB) : "
+                    + islands + " islands in " + time / 1_000_000.0 + "ms");
+            assertTrue(islands == 4);
+            assertTrue(visited.get(65_526, 5));
+            assertFalse(visited.get(1, 0));
+        } finally {
+            Files.deleteIfExists(mapFile);
+            Files.deleteIfExists(visitedFile);
+        }
+    }
+
+    @Test
+    void bitGridBenchmarkTest() {
+        int size = 4_096;
+        Random random = new Random(42);
+        GridSearch grid = new GridSearch(size, size, 4);
+        BitGrid bits = new BitGrid(size, size);
+        for (int y = 0; y < size; y++) {
+            // 위쪽 절반은 모두 벽인 지도
+            for (int x = 0; x < size && y >= size / 2; x++) {
+                boolean land = random.nextInt(5) != 0;
+                grid.set(y, x, land ? 1 : 0);
+                bits.set(y, x, land);
+            }
+        }
+        BitGridSearch search = new BitGridSearch(bits, 4);
+
+        // JIT 워밍업
+        floodFillCount(grid);
+        search.countIslands();
+        search.clearVisited();
+
+        long startTime = System.nanoTime();
+        long gridIslands = floodFillCount(grid);
+        long gridTime = System.nanoTime() - startTime;
+
+        startTime = System.nanoTime();
+        long bitIslands = search.countIslands();
+        long bitTime = System.nanoTime() - startTime;
+
+        System.out.println("memory : int[][] + boolean[][] = " + (long) size * size * 5 / 1024 / 1024
+                + "MB, BitGrid map + visited = " + 2L * size * bits.wordsPerRow() * Long.BYTES / 1024 / 1024 + "MB");
+        System.out.println("GridSearch = " + gridTime / 1_000_000.0 + "ms, BitGridSearch = " + bitTime / 1_000_000.0 + "ms");
+        assertTrue(gridIslands == bitIslands);
+    }
+
+    private static long floodFillCount(GridSearch grid) {
+        grid.clearVisited();
+        long count = 0;
+        for (int y = 0; y < grid.height(); y++) {
+            for (int x = 0; x < grid.width(); x++) {
+                if (grid.bfs(y, x) > 0) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,202 @@
+package ka.chapter4.item15.search;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.IntConsumer;
+
+public class ConnectedComponents {
+    private static final int DEFAULT_TILE_SIZE = 256;
+    private static final int WATER = -1;
+
+    private final GridSearch grid;
+    private final int H, W;
+    private final int tileSize;
+    private final int tilesPerRow;
+    private final int tileCount;
+    private final ForkJoinPool pool;
+    // 칸 번호(y * W + x)마다 부모 칸 번호를 담는 union-find. 1이 아닌 칸은 WATER
+    private AtomicIntegerArray parent;
+
+    public ConnectedComponents(GridSearch grid) {
+        this(grid, DEFAULT_TILE_SIZE, ForkJoinPool.commonPool());
+    }
+
+    public ConnectedComponents(GridSearch grid, int tileSize, ForkJoinPool pool) {
+        if (tileSize <= 0) {
+            throw new IllegalArgumentException("tileSize must be positive");
+        }
+        this.grid = grid;
+        this.H = grid.height();
+        this.W = grid.width();
+        this.tileSize = tileSize;
+        this.tilesPerRow = (W + tileSize - 1) / tileSize;
+        this.tileCount = tilesPerRow * ((H + tileSize - 1) / tileSize);
+        this.pool = pool;
+    }
+
+    // 1인 칸이 grid의 maxDir 방향으로 이어진 덩어리(섬)의 수
+    public int count() {
+        build();
+        int count = 0;
+        for (int i = 0; i < H * W; i++) {
+            if (parent.get(i) == i) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // 같은 섬에 속한 칸은 같은 값, 1이 아닌 칸은 0을 갖는 y * W + x 순서의 배열
+    public int[] label() {
+        build();
+        int[] labels = new int[H * W];
+        pool.invoke(new TileTask(0, tileCount, tile -> forEachCell(tile, (y, x) -> {
+            int cell = y * W + x;
+            labels[cell] = parent.get(cell) == WATER ? 0 : find(cell) + 1;
+        })));
+        return labels;
+    }
+
+    private void build() {
+        parent = new AtomicIntegerArray(H * W);
+        boolean diagonal = grid.maxDir() == 8;
+
+        // 1단계 : 타일마다 안쪽 칸끼리만 동시에 합침. 타일끼리 겹치는 칸이 없으므로 서로 경쟁하지 않음
+        pool.invoke(new TileTask(0, tileCount, tile -> forEachCell(tile, (y, x) -> {
+            int cell = y * W + x;
+            if (grid.get(y, x) != 1) {
+                parent.set(cell, WATER);
+                return;
+            }
+            parent.set(cell, cell);
+            int top = tileTop(tile), left = tileLeft(tile), right = Math.min(left + tileSize, W) - 1;
+            unionIfLand(cell, y, x - 1, x - 1 >= left);
+            unionIfLand(cell, y - 1, x, y - 1 >= top);
+            if (diagonal) {
+                unionIfLand(cell, y - 1, x - 1, y - 1 >= top && x - 1 >= left);
+                unionIfLand(cell, y - 1, x + 1, y - 1 >= top && x + 1 <= right);
+            }
+        })));
+
+        // 2단계 : 타일 경계의 칸을 이웃 타일의 칸과 합침. 여러 타일이 같은 루트를 건드리므로 CAS로 합침
+        pool.invoke(new TileTask(0, tileCount, tile -> {
+            int top = tileTop(tile), left = tileLeft(tile);
+            int bottom = Math.min(top + tileSize, H) - 1, right = Math.min(left + tileSize, W) - 1;
+            if (top > 0) {
+                for (int x = left; x <= right; x++) {
+                    unionAcross(top, x, top - 1, x);
+                    if (diagonal) {
+                        unionAcross(top, x, top - 1, x - 1);
+                        unionAcross(top, x, top - 1, x + 1);
+                    }
+                }
+            }
+            if (left > 0) {
+                for (int y = top; y <= bottom; y++) {
+                    unionAcross(y, left, y, left - 1);
+                    if (diagonal) {
+                        unionAcross(y, left, y - 1, left - 1);
+                        unionAcross(y, left, y + 1, left - 1);
+                    }
+                }
+            }
+        }));
+    }
+
+    private void unionIfLand(int cell, int y, int x, boolean inTile) {
+        if (inTile && grid.get(y, x) == 1) {
+            union(cell, y * W + x);
+        }
+    }
+
+    private void unionAcross(int y1, int x1, int y2, int x2) {
+        if (x2 < 0 || x2 >= W || y2 < 0 || y2 >= H) {
+            return;
+        }
+        if (grid.get(y1, x1) == 1 && grid.get(y2, x2) == 1) {
+            union(y1 * W + x1, y2 * W + x2);
+        }
+    }
+
+    // 경로의 칸이 할아버지를 가리키도록 CAS로 줄여가며 루트를 찾음. 실패해도 다른 스레드가 이미 줄인 것이므로 무시
+    private int find(int cell) {
+        while (true) {
+            int p = parent.get(cell);
+            if (p == cell) {
+                return cell;
+            }
+            int gp = parent.get(p);
+            if (p != gp) {
+                parent.compareAndSet(cell, p, gp);
+            }
+            cell = gp;
+        }
+    }
+
+    // 항상 번호가 큰 루트를 작은 루트 아래에 붙이므로, 동시에 합쳐도 순환이 생기지 않음
+    private void union(int a, int b) {
+        while (true) {
+            a = find(a);
+            b = find(b);
+            if (a == b) {
+                return;
+            }
+            if (a < b) {
+                int tmp = a;
+                a = b;
+                b = tmp;
+            }
+            // a가 그 사이 다른 루트 아래로 들어갔다면 CAS가 실패하고 다시 루트부터 찾음
+            if (parent.compareAndSet(a, a, b)) {
+                return;
+            }
+        }
+    }
+
+    private int tileTop(int tile) {
+        return tile / tilesPerRow * tileSize;
+    }
+
+    private int tileLeft(int tile) {
+        return tile % tilesPerRow * tileSize;
+    }
+
+    private interface CellConsumer {
+        void accept(int y, int x);
+    }
+
+    private void forEachCell(int tile, CellConsumer action) {
+        int top = tileTop(tile), left = tileLeft(tile);
+        int bottom = Math.min(top + tileSize, H), right = Math.min(left + tileSize, W);
+        for (int y = top; y < bottom; y++) {
+            for (int x = left; x < right; x++) {
+                action.accept(y, x);
+            }
+        }
+    }
+
+    // 타일 번호 구간을 반씩 나눠 하나가 남으면 처리
+    private static class TileTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from, to;
+        private final IntConsumer action;
+
+        TileTask(int from, int to, IntConsumer action) {
+            this.from = from;
+            this.to = to;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                action.accept(from);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new TileTask(from, mid, action), new TileTask(mid, to, action));
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package ka.chapter4.item15.search;
+
+import java.util.Arrays;
+
+public class GridSearch {
+    private static final int[] DX = {1, 0, -1, 0, -1, 1, -1, 1};
+    private static final int[] DY = {0, -1, 0, 1, -1, -1, 1, 1};
+
+    private final int H, W;
+    private final int maxDir;
+    // 2차원 배열 대신 y * W + x 위치에 값을 담는 평평한 배열
+    private final int[] map;
+    // 칸 하나당 1비트만 쓰는 방문 표시
+    private final long[] visited;
+    // 칸 번호(y * W + x)를 담는 작업 배열. BFS에서는 원형 큐, DFS에서는 스택으로 씀
+    // 탐색 경계만 담으면 되므로 격자 크기보다 훨씬 작게 시작하고, 모자랄 때만 두 배로 늘린 뒤 계속 재사용함
+    private int[] work;
+
+    public GridSearch(int height, int width, int maxDir) {
+        if (height <= 0 || width <= 0 || (long) height * width > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("grid size out of range: " + height + "x" + width);
+        }
+        if (maxDir != 4 && maxDir != 8) {
+            throw new IllegalArgumentException("maxDir must be 4 or 8");
+        }
+        this.H = height;
+        this.W = width;
+        this.maxDir = maxDir;
+        this.map = new int[height * width];
+        this.visited = new long[(height * width + 63) >>> 6];
+        this.work = new int[Integer.highestOneBit(Math.max(2 * (height + width), 64) - 1) << 1];
+    }
+
+    public int height() {
+        return H;
+    }
+
+    public int width() {
+        return W;
+    }
+
+    public int maxDir() {
+        return maxDir;
+    }
+
+    public int get(int y, int x) {
+        return map[y * W + x];
+    }
+
+    public void set(int y, int x, int value) {
+        map[y * W + x] = value;
+    }
+
+    public void fill(int value) {
+        Arrays.fill(map, value);
+    }
+
+    public boolean isVisited(int y, int x) {
+        return isVisited(y * W + x);
+    }
+
+    public void clearVisited() {
+        Arrays.fill(visited, 0L);
+    }
+
+    // 시작 칸과 이어진 1인 칸을 모두 방문하고, 방문한 칸의 수를 반환
+    public int bfs(int y, int x) {
+        int start = y * W + x;
+        if (map[start] != 1 || isVisited(start)) {
+            return 0;
+        }
+        int head = 0, tail = 0, count = 1;
+        int mask = work.length - 1;
+        // 꺼낼 때가 아니라 넣을 때 방문 표시를 해서, 같은 칸이 두 번 들어가지 않게 함
+        markVisited(start);
+        work[tail++] = start;
+
+        while (head != tail) {
+            int cur = work[head];
+            head = (head + 1) & mask;
+            int cx = cur % W;
+            int cy = cur / W;
+
+            for (int i = 0; i < maxDir; i++) {
+                int nx = cx + DX[i];
+                int ny = cy + DY[i];
+
+                if (nx >= 0 && nx < W && ny >= 0 && ny < H) {
+                    int next = ny * W + nx;
+                    if (map[next] == 1 && !isVisited(next)) {
+                        markVisited(next);
+                        work[tail] = next;
+                        tail = (tail + 1) & mask;
+                        count++;
+                        if (tail == head) {
+                            head = growQueue(head);
+                            tail = work.length / 2;
+                            mask = work.length - 1;
+                        }
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    // 재귀 대신 int 배열을 스택으로 사용하므로 큰 격자에서도 스레드 스택이 넘치지 않음
+    public int dfs(int y, int x) {
+        int start = y * W + x;
+        if (map[start] != 1 || isVisited(start)) {
+            return 0;
+        }
+        int top = 0, count = 1;
+        markVisited(start);
+        work[top++] = start;
+
+        while (top > 0) {
+            int cur = work[--top];
+            int cx = cur % W;
+            int cy = cur / W;
+
+            for (int i = 0; i < maxDir; i++) {
+                int nx = cx + DX[i];
+                int ny = cy + DY[i];
+
+                if (nx >= 0 && nx < W && ny >= 0 && ny < H) {
+                    int next = ny * W + nx;
+                    if (map[next] == 1 && !isVisited(next)) {
+                        markVisited(next);
+                        if (top == work.length) {
+                            work = Arrays.copyOf(work, top * 2);
+                        }
+                        work[top++] = next;
+                        count++;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    // 방문 표시와 작업 배열을 포함해 이 탐색기가 차지하는 대략적인 바이트 수
+    long footprintBytes() {
+        return (long) map.length * Integer.BYTES + (long) visited.length * Long.BYTES + (long) work.length * Integer.BYTES;
+    }
+
+    // 가득 찬 원형 큐를 두 배 크기로 옮기면서 head부터 0번 칸에 오도록 펼침. 새 head(0)를 반환
+    private int growQueue(int head) {
+        int[] grown = new int[work.length * 2];
+        int firstPart = work.length - head;
+        System.arraycopy(work, head, grown, 0, firstPart);
+        System.arraycopy(work, 0, grown, firstPart, head);
+        work = grown;
+        return 0;
+    }
+
+    private boolean isVisited(int cell) {
+        return (visited[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    private void markVisited(int cell) {
+        visited[cell >>> 6] |= 1L << cell;
+    }
+}
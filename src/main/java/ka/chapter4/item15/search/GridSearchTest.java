@@ -0,0 +1,207 @@
+package ka.chapter4.item15.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedList;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class GridSearchTest {
+    private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Test
+    void bfsDfsTest() {
+        // 1 1 0 1
+        // 0 1 0 1
+        // 1 0 0 1
+        GridSearch search = new GridSearch(3, 4, 4);
+        int[][] cells = {{1, 1, 0, 1}, {0, 1, 0, 1}, {1, 0, 0, 1}};
+        for (int y = 0; y < 3; y++) {
+            for (int x = 0; x < 4; x++) {
+                search.set(y, x, cells[y][x]);
+            }
+        }
+
+        assertTrue(search.bfs(0, 0) == 3);
+        assertTrue(search.isVisited(1, 1));
+        assertFalse(search.isVisited(2, 0));
+        // 이미 방문한 칸에서 시작하면 아무것도 하지 않음
+        assertTrue(search.bfs(1, 1) == 0);
+        assertTrue(search.dfs(0, 3) == 3);
+
+        // 8방향이라면 대각선으로 (2, 0)까지 이어짐
+        GridSearch diagonal = new GridSearch(3, 4, 8);
+        for (int y = 0; y < 3; y++) {
+            for (int x = 0; x < 4; x++) {
+                diagonal.set(y, x, cells[y][x]);
+            }
+        }
+        assertTrue(diagonal.dfs(0, 0) == 4);
+
+        assertThrows(IllegalArgumentException.class, () -> new GridSearch(3, 4, 6));
+    }
+
+    @Test
+    void largeGridDfsTest() {
+        // 재귀 DFS라면 스택이 넘치는 크기
+        GridSearch search = new GridSearch(2_000, 2_000, 4);
+        search.fill(1);
+        assertTrue(search.dfs(0, 0) == 2_000 * 2_000);
+    }
+
+    @Test
+    void gridSearchBenchmarkTest() {
+        int size = 4_096;
+        int[][] map = new int[size][size];
+        Random random = new Random(42);
+        GridSearch search = new GridSearch(size, size, 4);
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                // 벽이 20%인 격자
+                map[y][x] = random.nextInt(5) == 0 ? 0 : 1;
+                search.set(y, x, map[y][x]);
+            }
+        }
+        map[0][0] = 1;
+        search.set(0, 0, 1);
+
+        // 기존 queueBfs는 꺼낼 때 방문 표시를 해서 같은 칸이 계속 다시 들어가므로, 16x16에서도 수십 ms가 걸리고
+        // 이 크기에서는 끝나지 않음. 그래서 넣을 때 방문 표시를 하도록 고친 객체 기반 BFS와 비교함
+        long allocated = THREAD_MX_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+        long startTime = System.nanoTime();
+        int objectVisited = objectBfs(map, 0, 0);
+        long oldTime = System.nanoTime() - startTime;
+        long oldBytes = THREAD_MX_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId()) - allocated;
+
+        // 첫 탐색에서 작업 배열이 필요한 크기까지 늘어나고, 그 뒤로는 재사용함
+        search.bfs(0, 0);
+        search.clearVisited();
+
+        allocated = THREAD_MX_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+        startTime = System.nanoTime();
+        int visited = search.bfs(0, 0);
+        long newTime = System.nanoTime() - startTime;
+        long newBytes = THREAD_MX_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId()) - allocated;
+
+        System.out.println(size + "x" + size + " BFS (" + visited + " cells)");
+        System.out.println("LinkedList<Node> + boolean[][] = " + oldTime / 1_000_000.0 + "ms, " + oldBytes / 1024 / 1024 + "MB allocated");
+        System.out.println("GridSearch = " + newTime / 1_000_000.0 + "ms, " + newBytes / 1024 + "KB allocated");
+
+        System.out.println("memory : int[][] + boolean[][] = " + (long) size * size * 5 / 1024 / 1024
+                + "MB, GridSearch = " + search.footprintBytes() / 1024 / 1024 + "MB");
+
+        assertTrue(objectVisited == visited);
+        // 탐색 중에는 아무것도 할당하지 않음
+        assertTrue(newBytes < 1024);
+    }
+
+    @Test
+    void connectedComponentsTest() {
+        Random random = new Random(7);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        for (int maxDir : new int[]{4, 8}) {
+            for (int tileSize : new int[]{1, 3, 16, 256}) {
+                GridSearch grid = randomGrid(97, 131, maxDir, random);
+                int expected = floodFillCount(grid);
+                ConnectedComponents components = new ConnectedComponents(grid, tileSize, pool);
+
+                assertTrue(components.count() == expected);
+
+                // 이웃한 1인 칸은 항상 같은 라벨을 가짐
+                int[] labels = components.label();
+                for (int y = 0; y < 97; y++) {
+                    for (int x = 0; x < 131; x++) {
+                        if (grid.get(y, x) != 1) {
+                            assertTrue(labels[y * 131 + x] == 0);
+                        } else if (x + 1 < 131 && grid.get(y, x + 1) == 1) {
+                            assertTrue(labels[y * 131 + x] == labels[y * 131 + x + 1]);
+                        }
+                    }
+                }
+            }
+        }
+        pool.shutdown();
+    }
+
+    @Test
+    void connectedComponentsBenchmarkTest() {
+        int size = 4_096;
+        GridSearch grid = randomGrid(size, size, 4, new Random(42));
+        ConnectedComponents components = new ConnectedComponents(grid);
+
+        // JIT 워밍업
+        components.count();
+
+        long startTime = System.nanoTime();
+        int sequential = floodFillCount(grid);
+        long sequentialTime = System.nanoTime() - startTime;
+
+        startTime = System.nanoTime();
+        int parallel = components.count();
+        long parallelTime = System.nanoTime() - startTime;
+
+        System.out.println(size + "x" + size + " islands = " + parallel + " (" + ForkJoinPool.commonPool().getParallelism() + " workers)");
+        System.out.println("flood fill = " + sequentialTime / 1_000_000.0 + "ms, ConnectedComponents = " + parallelTime / 1_000_000.0 + "ms");
+        assertTrue(sequential == parallel);
+    }
+
+    // 섬 하나마다 BFS를 한 번씩 하는 기존 방식
+    private static int floodFillCount(GridSearch grid) {
+        grid.clearVisited();
+        int count = 0;
+        for (int y = 0; y < grid.height(); y++) {
+            for (int x = 0; x < grid.width(); x++) {
+                if (grid.bfs(y, x) > 0) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private static GridSearch randomGrid(int height, int width, int maxDir, Random random) {
+        GridSearch grid = new GridSearch(height, width, maxDir);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                grid.set(y, x, random.nextInt(2));
+            }
+        }
+        return grid;
+    }
+
+    private static int objectBfs(int[][] map, int y, int x) {
+        int H = map.length, W = map[0].length;
+        int[] dx = {1, 0, -1, 0};
+        int[] dy = {0, -1, 0, 1};
+        boolean[][] visited = new boolean[H][W];
+        Queue<Node> queue = new LinkedList<>();
+        visited[y][x] = true;
+        queue.offer(new Node(x, y));
+        int count = 0;
+
+        while (!queue.isEmpty()) {
+            Node cur = queue.poll();
+            count++;
+
+            for (int i = 0; i < 4; i++) {
+                int nx = cur.x + dx[i];
+                int ny = cur.y + dy[i];
+
+                if (nx >= 0 && nx < W && ny >= 0 && ny < H) {
+                    if (!visited[ny][nx] && map[ny][nx] == 1) {
+                        visited[ny][nx] = true;
+                        queue.offer(new Node(nx, ny));
+                    }
+                }
+            }
+        }
+        return count;
+    }
+}
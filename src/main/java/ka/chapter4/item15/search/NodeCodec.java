@@ -0,0 +1,144 @@
+package ka.chapter4.item15.search;
+
+import ka.chapter2.item7.cache.Codec;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+public class NodeCodec implements Codec<Node> {
+    public static final NodeCodec INSTANCE = new NodeCodec();
+
+    private NodeCodec() {
+    }
+
+    // 노드 하나 : [x(zigzag varint)] [y(zigzag varint)]
+    // 음수 좌표도 작은 값이면 1~2바이트로 줄이기 위해 부호 비트를 맨 뒤로 옮긴 뒤(zigzag) varint로 씀
+    @Override
+    public int sizeOf(Node node) {
+        return varLongSize(zigzag(node.x)) + varLongSize(zigzag(node.y));
+    }
+
+    @Override
+    public void encode(Node node, ByteBuffer dst) {
+        putVarLong(zigzag(node.x), dst);
+        putVarLong(zigzag(node.y), dst);
+    }
+
+    @Override
+    public Node decode(ByteBuffer src) {
+        int x = unzigzag(getVarLong(src));
+        int y = unzigzag(getVarLong(src));
+        return new Node(x, y);
+    }
+
+    // 여러 노드 : 노드마다 [zigzag(dx) + 1] [zigzag(dy)], 끝에 0 하나
+    // 탐색 경계의 노드는 바로 앞 노드와 가까우므로 이전 노드와의 차이를 쓰면 대부분 2바이트로 줄어듦
+    public int writeAll(Iterable<Node> nodes, DataOutput out) throws IOException {
+        int count = 0, prevX = 0, prevY = 0;
+        for (Node node : nodes) {
+            writeVarLong(zigzag(node.x - prevX) + 1, out);
+            writeVarLong(zigzag(node.y - prevY), out);
+            prevX = node.x;
+            prevY = node.y;
+            count++;
+        }
+        out.writeByte(0);
+        return count;
+    }
+
+    public int writeAll(Iterable<Node> nodes, ByteBuffer dst) {
+        int count = 0, prevX = 0, prevY = 0;
+        for (Node node : nodes) {
+            putVarLong(zigzag(node.x - prevX) + 1, dst);
+            putVarLong(zigzag(node.y - prevY), dst);
+            prevX = node.x;
+            prevY = node.y;
+            count++;
+        }
+        dst.put((byte) 0);
+        return count;
+    }
+
+    public List<Node> readAll(DataInput in) throws IOException {
+        List<Node> nodes = new ArrayList<>();
+        int x = 0, y = 0;
+        for (long dx = readVarLong(in); dx != 0; dx = readVarLong(in)) {
+            x += unzigzag(dx - 1);
+            y += unzigzag(readVarLong(in));
+            nodes.add(new Node(x, y));
+        }
+        return nodes;
+    }
+
+    public List<Node> readAll(ByteBuffer src) {
+        List<Node> nodes = new ArrayList<>();
+        int x = 0, y = 0;
+        for (long dx = getVarLong(src); dx != 0; dx = getVarLong(src)) {
+            x += unzigzag(dx - 1);
+            y += unzigzag(getVarLong(src));
+            nodes.add(new Node(x, y));
+        }
+        return nodes;
+    }
+
+    // 0, -1, 1, -2, 2 ... 를 0, 1, 2, 3, 4 ... 로 바꿈. +1을 해도 넘치지 않도록 long으로 반환
+    private static long zigzag(int value) {
+        return ((value << 1) ^ (value >> 31)) & 0xFFFFFFFFL;
+    }
+
+    private static int unzigzag(long value) {
+        int v = (int) value;
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    private static void putVarLong(long value, ByteBuffer dst) {
+        while ((value & ~0x7fL) != 0) {
+            dst.put((byte) ((value & 0x7f) | 0x80));
+            value >>>= 7;
+        }
+        dst.put((byte) value);
+    }
+
+    private static long getVarLong(ByteBuffer src) {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = src.get();
+            value |= (long) (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+    }
+
+    private static void writeVarLong(long value, DataOutput out) throws IOException {
+        while ((value & ~0x7fL) != 0) {
+            out.writeByte((int) ((value & 0x7f) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInput in) throws IOException {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = in.readByte();
+            value |= (long) (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+    }
+
+    private static int varLongSize(long value) {
+        int size = 1;
+        while ((value & ~0x7fL) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+}
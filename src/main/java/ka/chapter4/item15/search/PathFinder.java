@@ -0,0 +1,382 @@
+package ka.chapter4.item15.search;
+
+import java.util.Arrays;
+
+public class PathFinder {
+    // 정수 연산만 쓰도록 직선 한 칸을 10, 대각선 한 칸을 14(≒ 10√2)로 계산
+    public static final int STRAIGHT_COST = 10;
+    public static final int DIAGONAL_COST = 14;
+    public static final int UNREACHABLE = -1;
+
+    private static final int[] DX = {1, 0, -1, 0, -1, 1, -1, 1};
+    private static final int[] DY = {0, -1, 0, 1, -1, -1, 1, 1};
+
+    private final GridSearch grid;
+    private final int H, W;
+    private final int maxDir;
+
+    // 탐색마다 배열을 비우지 않도록, state[cell]이 이번 탐색의 값일 때만 g와 parent를 유효한 값으로 봄
+    // 2 * generation이면 열린 칸, 2 * generation + 1이면 닫힌 칸
+    private final int[] state;
+    private int generation;
+    private final int[] g;
+    private final int[] parent;
+    private final IntHeap open;
+    private int lastTarget = -1;
+
+    public PathFinder(GridSearch grid) {
+        this.grid = grid;
+        this.H = grid.height();
+        this.W = grid.width();
+        this.maxDir = grid.maxDir();
+        this.state = new int[H * W];
+        this.g = new int[H * W];
+        this.parent = new int[H * W];
+        this.open = new IntHeap(H * W);
+    }
+
+    // 시작 칸에서 각 칸까지 몇 번 이동해야 하는지를 dist에 채움. 갈 수 없는 칸은 UNREACHABLE
+    // dist는 H * W 크기로 한 번 만들어 계속 넘기면 되므로, 이 메서드는 아무것도 할당하지 않음
+    public int[] distanceField(int y, int x, int[] dist) {
+        if (dist.length != H * W) {
+            throw new IllegalArgumentException("dist.length != " + H * W);
+        }
+        Arrays.fill(dist, UNREACHABLE);
+        int start = y * W + x;
+        if (!passable(start)) {
+            return dist;
+        }
+        // 같은 칸을 두 번 넣지 않으므로 parent 배열을 큐로 빌려 씀
+        int[] queue = parent;
+        int head = 0, tail = 0;
+        dist[start] = 0;
+        queue[tail++] = start;
+
+        while (head < tail) {
+            int cur = queue[head++];
+            int cx = cur % W;
+            int cy = cur / W;
+
+            for (int i = 0; i < maxDir; i++) {
+                int nx = cx + DX[i];
+                int ny = cy + DY[i];
+                if (canMove(cx, cy, nx, ny)) {
+                    int next = ny * W + nx;
+                    if (dist[next] == UNREACHABLE) {
+                        dist[next] = dist[cur] + 1;
+                        queue[tail++] = next;
+                    }
+                }
+            }
+        }
+        lastTarget = -1;
+        return dist;
+    }
+
+    // 칸의 값을 그 칸에 들어가는 비용으로 보는 A*. 값이 0 이하인 칸은 벽
+    // 최소 비용(STRAIGHT_COST, DIAGONAL_COST 단위)을 반환하고, 갈 수 없으면 UNREACHABLE
+    public int aStar(int sy, int sx, int ty, int tx) {
+        int start = sy * W + sx, target = ty * W + tx;
+        beginSearch(target);
+        if (!passable(start) || !passable(target)) {
+            return UNREACHABLE;
+        }
+        push(start, start, 0, tx, ty);
+
+        while (!open.isEmpty()) {
+            int cur = open.poll();
+            if (cur == target) {
+                return g[cur];
+            }
+            state[cur] = closed();
+            int cx = cur % W;
+            int cy = cur / W;
+
+            for (int i = 0; i < maxDir; i++) {
+                int nx = cx + DX[i];
+                int ny = cy + DY[i];
+                if (canMove(cx, cy, nx, ny)) {
+                    int next = ny * W + nx;
+                    int cost = (i < 4 ? STRAIGHT_COST : DIAGONAL_COST) * grid.get(ny, nx);
+                    push(next, cur, g[cur] + cost, tx, ty);
+                }
+            }
+        }
+        return UNREACHABLE;
+    }
+
+    // 모든 칸의 비용이 같은 8방향 격자에서, 직선과 대각선으로 쭉 뻗어 나가다
+    // 방향을 바꿔야 하는 칸(점프 포인트)만 힙에 넣는 탐색. 결과는 aStar와 같은 비용
+    public int jumpPointSearch(int sy, int sx, int ty, int tx) {
+        if (maxDir != 8) {
+            throw new IllegalStateException("jump point search needs maxDir 8");
+        }
+        int start = sy * W + sx, target = ty * W + tx;
+        beginSearch(target);
+        if (!passable(start) || !passable(target)) {
+            return UNREACHABLE;
+        }
+        push(start, start, 0, tx, ty);
+
+        while (!open.isEmpty()) {
+            int cur = open.poll();
+            if (cur == target) {
+                return g[cur];
+            }
+            state[cur] = closed();
+            int cx = cur % W;
+            int cy = cur / W;
+
+            for (int i = 0; i < 8; i++) {
+                if (!isNaturalOrForced(cur, cx, cy, DX[i], DY[i])) {
+                    continue;
+                }
+                int jump = jump(cx + DX[i], cy + DY[i], DX[i], DY[i], tx, ty);
+                if (jump >= 0) {
+                    push(jump, cur, g[cur] + octile(jump % W - cx, jump / W - cy), tx, ty);
+                }
+            }
+        }
+        return UNREACHABLE;
+    }
+
+    // 마지막 aStar/jumpPointSearch의 경로를 시작 칸부터 out에 y * W + x로 채우고 칸 수를 반환
+    // jumpPointSearch의 경로는 방향이 바뀌는 칸만 담음
+    public int path(int[] out) {
+        if (lastTarget < 0 || state[lastTarget] >> 1 != generation) {
+            return 0;
+        }
+        int length = 0;
+        for (int cell = lastTarget; ; cell = parent[cell]) {
+            length++;
+            if (parent[cell] == cell) {
+                break;
+            }
+        }
+        int i = length;
+        for (int cell = lastTarget; i > 0; cell = parent[cell]) {
+            out[--i] = cell;
+        }
+        return length;
+    }
+
+    private void beginSearch(int target) {
+        open.clear();
+        if (++generation > Integer.MAX_VALUE / 2 - 1) {
+            Arrays.fill(state, 0);
+            generation = 1;
+        }
+        lastTarget = target;
+    }
+
+    private int closed() {
+        return 2 * generation + 1;
+    }
+
+    private void push(int cell, int from, int cost, int tx, int ty) {
+        if (state[cell] == closed()) {
+            return;
+        }
+        boolean seen = state[cell] == 2 * generation;
+        if (seen && g[cell] <= cost) {
+            return;
+        }
+        state[cell] = 2 * generation;
+        g[cell] = cost;
+        parent[cell] = from;
+        int f = cost + heuristic(tx - cell % W, ty - cell / W);
+        if (seen) {
+            open.decrease(cell, f);
+        } else {
+            open.add(cell, f);
+        }
+    }
+
+    private int heuristic(int dx, int dy) {
+        if (maxDir == 4) {
+            return STRAIGHT_COST * (Math.abs(dx) + Math.abs(dy));
+        }
+        return octile(dx, dy);
+    }
+
+    // 8방향에서 대각선으로 min(dx, dy)칸, 나머지를 직선으로 가는 거리
+    private static int octile(int dx, int dy) {
+        dx = Math.abs(dx);
+        dy = Math.abs(dy);
+        return STRAIGHT_COST * Math.max(dx, dy) + (DIAGONAL_COST - STRAIGHT_COST) * Math.min(dx, dy);
+    }
+
+    // 부모에서 온 방향을 기준으로, 부모를 거치지 않고는 더 짧게 갈 수 없는 이웃만 남김
+    private boolean isNaturalOrForced(int cur, int cx, int cy, int dx, int dy) {
+        int from = parent[cur];
+        if (from == cur) {
+            return true;
+        }
+        int px = Integer.signum(cx - from % W);
+        int py = Integer.signum(cy - from / W);
+        if (px != 0 && py != 0) {
+            // 대각선으로 왔다면 같은 대각선과 그 두 직선 성분
+            return (dx == px && dy == py) || (dx == px && dy == 0) || (dx == 0 && dy == py);
+        }
+        if (px != 0) {
+            // 가로로 왔다면 앞쪽, 그리고 위아래(뒤쪽이 막혀 있어 여기서만 돌 수 있는 방향 포함)
+            return dx == px || (dx == 0 && dy != 0);
+        }
+        return dy == py || (dy == 0 && dx != 0);
+    }
+
+    // (x, y)에서 (dx, dy) 방향으로 나아가며 첫 점프 포인트를 찾음. 없으면 -1
+    // 대각선 이동은 두 직선 성분이 모두 열려 있을 때만 허용(모서리를 가로지르지 않음)
+    private int jump(int x, int y, int dx, int dy, int tx, int ty) {
+        if (dx != 0 && dy != 0) {
+            while (true) {
+                if (!passableAt(x, y) || !passableAt(x - dx, y) || !passableAt(x, y - dy)) {
+                    return -1;
+                }
+                if (x == tx && y == ty) {
+                    return y * W + x;
+                }
+                // 두 직선 성분 방향 중 하나라도 점프 포인트가 있으면 여기서 방향을 바꿔야 함
+                if (jumpStraight(x + dx, y, dx, 0, tx, ty) >= 0 || jumpStraight(x, y + dy, 0, dy, tx, ty) >= 0) {
+                    return y * W + x;
+                }
+                x += dx;
+                y += dy;
+            }
+        }
+        return jumpStraight(x, y, dx, dy, tx, ty);
+    }
+
+    private int jumpStraight(int x, int y, int dx, int dy, int tx, int ty) {
+        while (passableAt(x, y)) {
+            if (x == tx && y == ty) {
+                return y * W + x;
+            }
+            if (dx != 0) {
+                // 위나 아래가 열려 있는데 그 뒤쪽 칸이 막혀 있다면, 여기서 꺾는 경로가 최단일 수 있음
+                if ((passableAt(x, y - 1) && !passableAt(x - dx, y - 1))
+                        || (passableAt(x, y + 1) && !passableAt(x - dx, y + 1))) {
+                    return y * W + x;
+                }
+            } else {
+                if ((passableAt(x - 1, y) && !passableAt(x - 1, y - dy))
+                        || (passableAt(x + 1, y) && !passableAt(x + 1, y - dy))) {
+                    return y * W + x;
+                }
+            }
+            x += dx;
+            y += dy;
+        }
+        return -1;
+    }
+
+    private boolean canMove(int cx, int cy, int nx, int ny) {
+        if (!passableAt(nx, ny)) {
+            return false;
+        }
+        // 대각선은 양옆이 모두 열려 있을 때만 이동
+        return nx == cx || ny == cy || (passableAt(nx, cy) && passableAt(cx, ny));
+    }
+
+    private boolean passableAt(int x, int y) {
+        return x >= 0 && x < W && y >= 0 && y < H && grid.get(y, x) > 0;
+    }
+
+    private boolean passable(int cell) {
+        return grid.get(cell / W, cell % W) > 0;
+    }
+
+    // 칸 번호를 f 값 순서로 꺼내는 이진 힙. PriorityQueue<Node>와 달리 칸마다 객체를 만들지 않고,
+    // 칸의 힙 위치를 기억해 f 값이 줄어들면 그 자리에서 끌어올림
+    private static class IntHeap {
+        private final int[] cells;
+        private final int[] keys;
+        private final int[] position;
+        private int size;
+
+        IntHeap(int capacity) {
+            cells = new int[capacity];
+            keys = new int[capacity];
+            position = new int[capacity];
+            Arrays.fill(position, -1);
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void clear() {
+            for (int i = 0; i < size; i++) {
+                position[cells[i]] = -1;
+            }
+            size = 0;
+        }
+
+        void add(int cell, int key) {
+            cells[size] = cell;
+            keys[size] = key;
+            position[cell] = size;
+            siftUp(size++);
+        }
+
+        void decrease(int cell, int key) {
+            int i = position[cell];
+            if (i < 0) {
+                add(cell, key);
+                return;
+            }
+            keys[i] = key;
+            siftUp(i);
+        }
+
+        int poll() {
+            int top = cells[0];
+            position[top] = -1;
+            if (--size > 0) {
+                move(size, 0);
+                siftDown(0);
+            }
+            return top;
+        }
+
+        private void siftUp(int i) {
+            int cell = cells[i], key = keys[i];
+            while (i > 0) {
+                int p = (i - 1) >>> 1;
+                if (keys[p] <= key) {
+                    break;
+                }
+                move(p, i);
+                i = p;
+            }
+            cells[i] = cell;
+            keys[i] = key;
+            position[cell] = i;
+        }
+
+        private void siftDown(int i) {
+            int cell = cells[i], key = keys[i];
+            int half = size >>> 1;
+            while (i < half) {
+                int c = 2 * i + 1;
+                if (c + 1 < size && keys[c + 1] < keys[c]) {
+                    c++;
+                }
+                if (key <= keys[c]) {
+                    break;
+                }
+                move(c, i);
+                i = c;
+            }
+            cells[i] = cell;
+            keys[i] = key;
+            position[cell] = i;
+        }
+
+        private void move(int from, int to) {
+            cells[to] = cells[from];
+            keys[to] = keys[from];
+            position[cells[to]] = to;
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package ka.chapter4.item15.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PathFinderTest {
+    @Test
+    void openFieldTest() {
+        GridSearch grid = new GridSearch(5, 5, 8);
+        grid.fill(1);
+        PathFinder finder = new PathFinder(grid);
+
+        // 대각선 4칸
+        assertTrue(finder.aStar(0, 0, 4, 4) == 4 * PathFinder.DIAGONAL_COST);
+        assertTrue(finder.jumpPointSearch(0, 0, 4, 4) == 4 * PathFinder.DIAGONAL_COST);
+        // 대각선 2칸 + 직선 2칸
+        assertTrue(finder.aStar(0, 0, 2, 4) == 2 * PathFinder.DIAGONAL_COST + 2 * PathFinder.STRAIGHT_COST);
+
+        int[] path = new int[25];
+        int length = finder.aStar(0, 0, 0, 4) >= 0 ? finder.path(path) : 0;
+        assertTrue(length == 5);
+        assertTrue(path[0] == 0 && path[4] == 4);
+
+        GridSearch fourWay = new GridSearch(5, 5, 4);
+        fourWay.fill(1);
+        assertTrue(new PathFinder(fourWay).aStar(0, 0, 4, 4) == 8 * PathFinder.STRAIGHT_COST);
+        assertThrows(IllegalStateException.class, () -> new PathFinder(fourWay).jumpPointSearch(0, 0, 4, 4));
+    }
+
+    @Test
+    void distanceFieldTest() {
+        // 1 1 1
+        // 0 0 1
+        // 1 1 1
+        GridSearch grid = new GridSearch(3, 3, 4);
+        grid.fill(1);
+        grid.set(1, 0, 0);
+        grid.set(1, 1, 0);
+        PathFinder finder = new PathFinder(grid);
+
+        int[] dist = new int[9];
+        finder.distanceField(0, 0, dist);
+        assertTrue(dist[2 * 3] == 6);
+        assertTrue(dist[3] == PathFinder.UNREACHABLE);
+
+        // 같은 배열을 다시 넘겨 재사용
+        finder.distanceField(2, 0, dist);
+        assertTrue(dist[0] == 6);
+        assertTrue(dist[2 * 3] == 0);
+    }
+
+    @Test
+    void weightedTest() {
+        // 가운데 세로줄은 지나가는 비용이 10배. 돌아갈 수 있다면 돌아감
+        GridSearch grid = new GridSearch(5, 5, 4);
+        grid.fill(1);
+        for (int y = 0; y < 4; y++) {
+            grid.set(y, 2, 10);
+        }
+        PathFinder finder = new PathFinder(grid);
+
+        // 직선(4칸 중 1칸이 10배) 13 vs 아래로 돌아가기 4 + 4 + 4 = 12
+        assertTrue(finder.aStar(0, 0, 0, 4) == 12 * PathFinder.STRAIGHT_COST);
+    }
+
+    @Test
+    void jumpPointSearchMatchesAStarTest() {
+        Random random = new Random(3);
+        for (int round = 0; round < 30; round++) {
+            GridSearch grid = new GridSearch(40, 60, 8);
+            for (int y = 0; y < 40; y++) {
+                for (int x = 0; x < 60; x++) {
+                    grid.set(y, x, random.nextInt(100) < 25 ? 0 : 1);
+                }
+            }
+            PathFinder finder = new PathFinder(grid);
+            for (int i = 0; i < 20; i++) {
+                int sy = random.nextInt(40), sx = random.nextInt(60);
+                int ty = random.nextInt(40), tx = random.nextInt(60);
+                int aStar = finder.aStar(sy, sx, ty, tx);
+                assertTrue(finder.jumpPointSearch(sy, sx, ty, tx) == aStar);
+                assertTrue(objectAStar(grid, sy, sx, ty, tx) == aStar);
+            }
+        }
+    }
+
+    @Test
+    void pathFinderBenchmarkTest() {
+        Random random = new Random(42);
+        GridSearch maze = maze(1_025, random);
+        GridSearch field = new GridSearch(2_048, 2_048, 8);
+        for (int y = 0; y < 2_048; y++) {
+            for (int x = 0; x < 2_048; x++) {
+                field.set(y, x, random.nextInt(10) == 0 ? 0 : 1);
+            }
+        }
+        field.set(0, 0, 1);
+        field.set(2_047, 2_047, 1);
+
+        benchmark("maze 1025x1025", maze, 1_023, 1_023);
+        benchmark("open field 2048x2048", field, 2_047, 2_047);
+    }
+
+    private static void benchmark(String name, GridSearch grid, int ty, int tx) {
+        PathFinder finder = new PathFinder(grid);
+        int[] dist = new int[grid.height() * grid.width()];
+
+        // JIT 워밍업
+        for (int i = 0; i < 3; i++) {
+            finder.aStar(0, 0, ty, tx);
+            finder.jumpPointSearch(0, 0, ty, tx);
+            objectAStar(grid, 0, 0, ty, tx);
+        }
+
+        long startTime = System.nanoTime();
+        finder.distanceField(0, 0, dist);
+        long fieldTime = System.nanoTime() - startTime;
+
+        startTime = System.nanoTime();
+        int objectCost = objectAStar(grid, 0, 0, ty, tx);
+        long objectTime = System.nanoTime() - startTime;
+
+        startTime = System.nanoTime();
+        int aStarCost = finder.aStar(0, 0, ty, tx);
+        long aStarTime = System.nanoTime() - startTime;
+
+        startTime = System.nanoTime();
+        int jpsCost = finder.jumpPointSearch(0, 0, ty, tx);
+        long jpsTime = System.nanoTime() - startTime;
+
+        System.out.println(name + " : distance field = " + fieldTime / 1_000_000.0
+                + "ms, PriorityQueue A* = " + objectTime / 1_000_000.0
+                + "ms, A* = " + aStarTime / 1_000_000.0
+                + "ms, JPS = " + jpsTime / 1_000_000.0 + "ms (cost " + aStarCost + ")");
+
+        assertTrue(objectCost == aStarCost);
+        assertTrue(jpsCost == aStarCost);
+    }
+
+    // 가장자리를 제외한 홀수 칸을 방으로 두고, 무작위 DFS로 벽을 허물어 만든 미로
+    private static GridSearch maze(int size, Random random) {
+        GridSearch grid = new GridSearch(size, size, 8);
+        int rooms = (size - 1) / 2;
+        int[] stack = new int[rooms * rooms];
+        boolean[] visited = new boolean[rooms * rooms];
+        int[] order = {0, 1, 2, 3};
+        int top = 0;
+        stack[top++] = 0;
+        visited[0] = true;
+        grid.set(1, 1, 1);
+
+        while (top > 0) {
+            int cur = stack[top - 1];
+            int cx = cur % rooms, cy = cur / rooms;
+            for (int i = 3; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int tmp = order[i];
+                order[i] = order[j];
+                order[j] = tmp;
+            }
+            boolean moved = false;
+            for (int d : order) {
+                int nx = cx + (d == 0 ? 1 : d == 2 ? -1 : 0);
+                int ny = cy + (d == 1 ? 1 : d == 3 ? -1 : 0);
+                if (nx >= 0 && nx < rooms && ny >= 0 && ny < rooms && !visited[ny * rooms + nx]) {
+                    visited[ny * rooms + nx] = true;
+                    grid.set(2 * ny + 1, 2 * nx + 1, 1);
+                    grid.set(cy + ny + 1, cx + nx + 1, 1);
+                    stack[top++] = ny * rooms + nx;
+                    moved = true;
+                    break;
+                }
+            }
+            if (!moved) {
+                top--;
+            }
+        }
+        grid.set(0, 0, 1);
+        grid.set(0, 1, 1);
+        grid.set(1, 0, 1);
+        grid.set(size - 1, size - 1, 1);
+        grid.set(size - 2, size - 1, 1);
+        grid.set(size - 1, size - 2, 1);
+        return grid;
+    }
+
+    private static class Entry {
+        final int cell, f;
+
+        Entry(int cell, int f) {
+            this.cell = cell;
+            this.f = f;
+        }
+    }
+
+    // 칸마다 객체를 만들어 PriorityQueue에 넣는 일반적인 A*. 비교 대상
+    private static int objectAStar(GridSearch grid, int sy, int sx, int ty, int tx) {
+        int H = grid.height(), W = grid.width();
+        int[] dx = {1, 0, -1, 0, -1, 1, -1, 1};
+        int[] dy = {0, -1, 0, 1, -1, -1, 1, 1};
+        int[] g = new int[H * W];
+        Arrays.fill(g, Integer.MAX_VALUE);
+        boolean[] closed = new boolean[H * W];
+        if (grid.get(sy, sx) <= 0 || grid.get(ty, tx) <= 0) {
+            return PathFinder.UNREACHABLE;
+        }
+        PriorityQueue<Entry> queue = new PriorityQueue<>((a, b) -> Integer.compare(a.f, b.f));
+        g[sy * W + sx] = 0;
+        queue.add(new Entry(sy * W + sx, 0));
+
+        while (!queue.isEmpty()) {
+            int cur = queue.poll().cell;
+            if (closed[cur]) {
+                continue;
+            }
+            if (cur == ty * W + tx) {
+                return g[cur];
+            }
+            closed[cur] = true;
+            int cx = cur % W, cy = cur / W;
+            for (int i = 0; i < grid.maxDir(); i++) {
+                int nx = cx + dx[i], ny = cy + dy[i];
+                if (nx < 0 || nx >= W || ny < 0 || ny >= H || grid.get(ny, nx) <= 0) {
+                    continue;
+                }
+                if (i >= 4 && (grid.get(cy, nx) <= 0 || grid.get(ny, cx) <= 0)) {
+                    continue;
+                }
+                int next = ny * W + nx;
+                int cost = g[cur] + (i < 4 ? PathFinder.STRAIGHT_COST : PathFinder.DIAGONAL_COST) * grid.get(ny, nx);
+                if (cost < g[next]) {
+                    g[next] = cost;
+                    int hx = Math.abs(tx - nx), hy = Math.abs(ty - ny);
+                    int h = PathFinder.STRAIGHT_COST * Math.max(hx, hy)
+                            + (PathFinder.DIAGONAL_COST - PathFinder.STRAIGHT_COST) * Math.min(hx, hy);
+                    queue.add(new Entry(next, cost + h));
+                }
+            }
+        }
+        return PathFinder.UNREACHABLE;
+    }
+}
@@ -3,6 +3,10 @@ package ka.chapter4.item15.search;
 import org.junit.jupiter.api.Test;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -28,6 +32,84 @@ public class SerializableTest {
         assertTrue(original.x == deserialized.x);
     }
 
+    @Test
+    void nodeCodecTest() throws IOException {
+        // 직렬화와 달리 transient인 x, y도 그대로 남음
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        NodeCodec.INSTANCE.encode(new Node(-3, Integer.MAX_VALUE), buffer);
+        assertTrue(buffer.position() == NodeCodec.INSTANCE.sizeOf(new Node(-3, Integer.MAX_VALUE)));
+        buffer.flip();
+        Node decoded = NodeCodec.INSTANCE.decode(buffer);
+        assertTrue(decoded.x == -3 && decoded.y == Integer.MAX_VALUE);
+
+        List<Node> nodes = List.of(new Node(0, 0), new Node(1, 0), new Node(Integer.MIN_VALUE, -1), new Node(Integer.MAX_VALUE, 5));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        assertTrue(NodeCodec.INSTANCE.writeAll(nodes, new DataOutputStream(bytes)) == 4);
+
+        List<Node> read = NodeCodec.INSTANCE.readAll(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        List<Node> readFromBuffer = NodeCodec.INSTANCE.readAll(ByteBuffer.wrap(bytes.toByteArray()));
+        assertTrue(read.size() == 4 && readFromBuffer.size() == 4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(read.get(i).x == nodes.get(i).x && read.get(i).y == nodes.get(i).y);
+            assertTrue(readFromBuffer.get(i).x == nodes.get(i).x && readFromBuffer.get(i).y == nodes.get(i).y);
+        }
+    }
+
+    @Test
+    void nodeCodecBenchmarkTest() throws IOException {
+        // 격자 위를 무작위로 한 칸씩 움직이는 탐색 경계 100만 개
+        List<Node> frontier = new ArrayList<>();
+        Random random = new Random(42);
+        int x = 2_000, y = 2_000;
+        for (int i = 0; i < 1_000_000; i++) {
+            x += random.nextInt(3) - 1;
+            y += random.nextInt(3) - 1;
+            frontier.add(new Node(x, y));
+        }
+
+        // JIT 워밍업
+        javaSerialize(frontier);
+        codecSerialize(frontier);
+
+        long startTime = System.nanoTime();
+        byte[] serialized = javaSerialize(frontier);
+        long serializeTime = System.nanoTime() - startTime;
+
+        startTime = System.nanoTime();
+        byte[] encoded = codecSerialize(frontier);
+        long codecTime = System.nanoTime() - startTime;
+
+        startTime = System.nanoTime();
+        List<Node> decoded = NodeCodec.INSTANCE.readAll(ByteBuffer.wrap(encoded));
+        long decodeTime = System.nanoTime() - startTime;
+
+        System.out.println("ObjectOutputStream = " + serialized.length / 1024 + "KB, " + serializeTime / 1_000_000.0 + "ms (좌표 유실)");
+        System.out.println("NodeCodec = " + encoded.length / 1024 + "KB, " + codecTime / 1_000_000.0
+                + "ms, decode " + decodeTime / 1_000_000.0 + "ms");
+
+        assertTrue(decoded.size() == frontier.size());
+        assertTrue(decoded.get(999_999).x == x && decoded.get(999_999).y == y);
+        assertTrue(encoded.length < serialized.length);
+    }
+
+    private static byte[] javaSerialize(List<Node> nodes) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            for (Node node : nodes) {
+                out.writeObject(node);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] codecSerialize(List<Node> nodes) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(bytes))) {
+            NodeCodec.INSTANCE.writeAll(nodes, out);
+        }
+        return bytes.toByteArray();
+    }
+
     // 객체를 파일에 직렬화하는 메소드
     private static void serializeToFile(Object object, String filePath) {
         try (ObjectOutputStream outputStream = new ObjectOutputStream(new FileOutputStream(filePath))) {
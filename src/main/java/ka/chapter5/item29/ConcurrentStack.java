@@ -0,0 +1,97 @@
+package ka.chapter5.item29;
+
+import java.util.Collection;
+import java.util.EmptyStackException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+public class ConcurrentStack<E> {
+    private static final int ELIMINATION_SIZE = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    private static final int ELIMINATION_SPINS = 64;
+
+    private final AtomicReference<Node<E>> top = new AtomicReference<>();
+    // push와 pop이 동시에 몰리면 top을 건드리지 않고 이 배열에서 서로 값을 주고받아 상쇄
+    private final AtomicReferenceArray<Node<E>> eliminationArray = new AtomicReferenceArray<>(ELIMINATION_SIZE);
+
+    private static class Node<E> {
+        final E item;
+        Node<E> next;
+
+        Node(E item) {
+            this.item = item;
+        }
+    }
+
+    public void push(E e) {
+        Node<E> node = new Node<>(e);
+        while (true) {
+            Node<E> oldTop = top.get();
+            node.next = oldTop;
+            if (top.compareAndSet(oldTop, node)) {
+                return;
+            }
+            if (tryEliminatePush(node)) {
+                return;
+            }
+        }
+    }
+
+    public E pop() {
+        while (true) {
+            Node<E> oldTop = top.get();
+            if (oldTop == null) throw new EmptyStackException();
+
+            if (top.compareAndSet(oldTop, oldTop.next)) {
+                return oldTop.item;
+            }
+            Node<E> eliminated = tryEliminatePop();
+            if (eliminated != null) {
+                return eliminated.item;
+            }
+        }
+    }
+
+    public void pushAll(Iterable<? extends E> src) {
+        for (E e : src) {
+            push(e);
+        }
+    }
+
+    public boolean isEmpty() {
+        return top.get() == null;
+    }
+
+    public void popAll(Collection<? super E> dst) {
+        // 한 번의 CAS로 전체를 떼어낸 뒤 순서대로 옮김
+        Node<E> node = top.getAndSet(null);
+        for (; node != null; node = node.next) {
+            dst.add(node.item);
+        }
+    }
+
+    private boolean tryEliminatePush(Node<E> node) {
+        int slot = ThreadLocalRandom.current().nextInt(ELIMINATION_SIZE);
+        if (!eliminationArray.compareAndSet(slot, null, node)) {
+            return false;
+        }
+        for (int i = 0; i < ELIMINATION_SPINS; i++) {
+            if (eliminationArray.get(slot) != node) {
+                // pop 쪽이 가져감
+                return true;
+            }
+            Thread.onSpinWait();
+        }
+        // 아무도 가져가지 않았다면 회수하고 다시 top에 시도, 회수에 실패했다면 그 사이에 가져간 것
+        return !eliminationArray.compareAndSet(slot, node, null);
+    }
+
+    private Node<E> tryEliminatePop() {
+        int slot = ThreadLocalRandom.current().nextInt(ELIMINATION_SIZE);
+        Node<E> node = eliminationArray.get(slot);
+        if (node != null && eliminationArray.compareAndSet(slot, node, null)) {
+            return node;
+        }
+        return null;
+    }
+}
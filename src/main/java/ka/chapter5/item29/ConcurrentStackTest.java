@@ -0,0 +1,108 @@
+package ka.chapter5.item29;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.EmptyStackException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ConcurrentStackTest {
+    private static final int TOTAL_OPERATIONS = 400_000;
+
+    @Test
+    void stackTest() {
+        ConcurrentStack<Integer> stack = new ConcurrentStack<>();
+        stack.pushAll(List.of(1, 2, 3));
+
+        assertTrue(stack.pop() == 3);
+
+        List<Integer> dst = new ArrayList<>();
+        stack.popAll(dst);
+        assertTrue(dst.equals(List.of(2, 1)));
+        assertTrue(stack.isEmpty());
+        assertThrows(EmptyStackException.class, stack::pop);
+    }
+
+    @Test
+    void noLostElementTest() throws InterruptedException {
+        ConcurrentStack<Integer> stack = new ConcurrentStack<>();
+        Set<Integer> popped = ConcurrentHashMap.newKeySet();
+        int threadCount = 8, perThread = 10_000;
+
+        runConcurrently(threadCount, id -> {
+            for (int i = 0; i < perThread; i++) {
+                stack.push(id * perThread + i);
+                popped.add(stack.pop());
+            }
+        });
+
+        // push한 모든 값이 중복이나 누락 없이 한 번씩 pop 됨
+        assertTrue(popped.size() == threadCount * perThread);
+        assertTrue(stack.isEmpty());
+    }
+
+    @Test
+    void contentionBenchmarkTest() throws InterruptedException {
+        for (int threadCount : new int[]{1, 4, 16, 64}) {
+            Stack<Integer> lockedStack = new Stack<>();
+            ConcurrentStack<Integer> lockFreeStack = new ConcurrentStack<>();
+            int perThread = TOTAL_OPERATIONS / threadCount;
+
+            long lockedTime = runConcurrently(threadCount, id -> {
+                for (int i = 0; i < perThread; i++) {
+                    synchronized (lockedStack) {
+                        lockedStack.push(i);
+                    }
+                    synchronized (lockedStack) {
+                        lockedStack.pop();
+                    }
+                }
+            });
+            long lockFreeTime = runConcurrently(threadCount, id -> {
+                for (int i = 0; i < perThread; i++) {
+                    lockFreeStack.push(i);
+                    lockFreeStack.pop();
+                }
+            });
+
+            System.out.println(threadCount + " threads : synchronized Stack = " + lockedTime / 1_000_000.0
+                    + "ms, ConcurrentStack = " + lockFreeTime / 1_000_000.0 + "ms");
+        }
+    }
+
+    private static long runConcurrently(int threadCount, Task task) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < threadCount; i++) {
+            int id = i;
+            threads.add(new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                task.run(id);
+            }));
+        }
+        threads.forEach(Thread::start);
+
+        long startTime = System.nanoTime();
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return System.nanoTime() - startTime;
+    }
+
+    @FunctionalInterface
+    private interface Task {
+        void run(int id);
+    }
+}
@@ -0,0 +1,71 @@
+package ka.chapter5.item29;
+
+import java.util.Arrays;
+import java.util.EmptyStackException;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+
+public class LongStack {
+    private long[] elements;
+    private int size = 0;
+    private static final int DEFAULT_INITIAL_CAPACITY = 16;
+
+    public LongStack() {
+        elements = new long[DEFAULT_INITIAL_CAPACITY];
+    }
+
+    public void push(long e) {
+        ensureCapacity(size + 1);
+        elements[size++] = e;
+    }
+
+    public long pop() {
+        if(size == 0) throw new EmptyStackException();
+
+        // 기본 타입이므로 참조 해제가 필요 없음
+        return elements[--size];
+    }
+
+    public long peek() {
+        if(size == 0) throw new EmptyStackException();
+        return elements[size - 1];
+    }
+
+    private void ensureCapacity(int minCapacity) {
+        if(elements.length < minCapacity)
+            elements = Arrays.copyOf(elements, Math.max(2 * elements.length + 1, minCapacity));
+    }
+
+    public void pushAll(long... src) {
+        ensureCapacity(size + src.length);
+        System.arraycopy(src, 0, elements, size, src.length);
+        size += src.length;
+    }
+
+    public void pushAll(LongStream src) {
+        src.forEachOrdered(this::push);
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // dst를 채울 수 있는 만큼 꺼내고, 꺼낸 개수를 반환
+    public int popAll(long[] dst) {
+        int count = Math.min(size, dst.length);
+        for (int i = 0; i < count; i++) {
+            dst[i] = elements[--size];
+        }
+        return count;
+    }
+
+    public void popAll(LongConsumer dst) {
+        while (!isEmpty()) {
+            dst.accept(pop());
+        }
+    }
+}
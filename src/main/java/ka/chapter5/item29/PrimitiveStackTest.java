@@ -0,0 +1,99 @@
+package ka.chapter5.item29;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PrimitiveStackTest {
+    private static final int COUNT = 1_000_000;
+    private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Test
+    void intStackTest() {
+        IntStack stack = new IntStack();
+        stack.pushAll(1, 2, 3);
+        stack.pushAll(IntStream.rangeClosed(4, 5));
+        stack.push(6);
+
+        assertTrue(stack.pop() == 6);
+
+        int[] dst = new int[3];
+        assertTrue(stack.popAll(dst) == 3);
+        assertTrue(dst[0] == 5 && dst[1] == 4 && dst[2] == 3);
+
+        List<Integer> rest = new ArrayList<>();
+        stack.popAll(rest::add);
+        assertTrue(rest.equals(List.of(2, 1)));
+        assertTrue(stack.isEmpty());
+    }
+
+    @Test
+    void longAndDoubleStackTest() {
+        LongStack longStack = new LongStack();
+        longStack.pushAll(Long.MAX_VALUE, 1L);
+        assertTrue(longStack.pop() == 1L);
+        assertTrue(longStack.peek() == Long.MAX_VALUE);
+
+        DoubleStack doubleStack = new DoubleStack();
+        doubleStack.pushAll(0.5, 1.5);
+        assertTrue(doubleStack.pop() == 1.5);
+        assertTrue(doubleStack.size() == 1);
+    }
+
+    @Test
+    void boxingBenchmarkTest() {
+        // JIT 워밍업
+        for (int i = 0; i < 5; i++) {
+            runBoxed();
+            runPrimitive();
+        }
+
+        long allocated = THREAD_MX_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+        long startTime = System.nanoTime();
+        long boxedSum = runBoxed();
+        long boxedTime = System.nanoTime() - startTime;
+        long boxedBytes = THREAD_MX_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId()) - allocated;
+
+        allocated = THREAD_MX_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+        startTime = System.nanoTime();
+        long primitiveSum = runPrimitive();
+        long primitiveTime = System.nanoTime() - startTime;
+        long primitiveBytes = THREAD_MX_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId()) - allocated;
+
+        System.out.println("Stack<Integer> = " + boxedTime / 1_000_000.0 + "ms, " + boxedBytes / 1024 + "KB allocated");
+        System.out.println("IntStack = " + primitiveTime / 1_000_000.0 + "ms, " + primitiveBytes / 1024 + "KB allocated");
+
+        assertTrue(boxedSum == primitiveSum);
+        assertTrue(primitiveBytes < boxedBytes);
+    }
+
+    private static long runBoxed() {
+        Stack<Integer> stack = new Stack<>();
+        for (int i = 0; i < COUNT; i++) {
+            stack.push(i);
+        }
+        long sum = 0;
+        while (!stack.isEmpty()) {
+            sum += stack.pop();
+        }
+        return sum;
+    }
+
+    private static long runPrimitive() {
+        IntStack stack = new IntStack();
+        for (int i = 0; i < COUNT; i++) {
+            stack.push(i);
+        }
+        long sum = 0;
+        while (!stack.isEmpty()) {
+            sum += stack.pop();
+        }
+        return sum;
+    }
+}
@@ -1,37 +1,20 @@
 package ka.chapter5.item29;
 
-import java.util.Arrays;
+import ka.chapter2.item7.stack.ChunkedStore;
+
 import java.util.Collection;
-import java.util.EmptyStackException;
 
 public class Stack<E> {
-    private Object[] elements;
-    private int size = 0;
-    private static final int DEFAULT_INITIAL_CAPACITY = 16;
-
-    public Stack() {
-        elements = new Object[DEFAULT_INITIAL_CAPACITY];
-    }
+    private final ChunkedStore<E> elements = new ChunkedStore<>();
 
     public void push(E e) {
-        ensureCapacity();
-        elements[size++] = e;
+        elements.push(e);
     }
 
     public E pop() {
-        if(size == 0) throw new EmptyStackException();
-
-        @SuppressWarnings("unchecked")
-        E result = (E) elements[--size];
-
-        elements[size] = null; // 참조 해제
-        return result;
+        return elements.pop(); // 꺼낸 칸의 참조는 ChunkedStore에서 해제
     }
 
-    private void ensureCapacity() {
-        if(elements.length == size)
-            elements = Arrays.copyOf(elements, 2 * size + 1);
-    }
     public void pushAll(Iterable<? extends E> src) {
         for (E e : src) {
             push(e);
@@ -39,7 +22,7 @@ public class Stack<E> {
     }
 
     public boolean isEmpty() {
-        return size == 0;
+        return elements.isEmpty();
     }
 
     public void popAll(Collection<? super E> dst) {
@@ -0,0 +1,47 @@
+package ka.chapter7.item44;
+
+import ka.chapter2.item7.cache.CacheStats;
+import ka.chapter2.item7.cache.StatsCounter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class CacheHashMap<K, V> extends LinkedHashMap<K, V> {
+    private static final int MAX_ENTRIES = 100;
+
+    private final EldestEntryRemovalFunction<K, V> removalFunction;
+    private final StatsCounter statsCounter = new StatsCounter();
+
+    public CacheHashMap() {
+        this(false, (map, eldest) -> map.size() > MAX_ENTRIES);
+    }
+
+    public CacheHashMap(boolean accessOrder, EldestEntryRemovalFunction<K, V> removalFunction) {
+        super(16, 0.75f, accessOrder);
+        this.removalFunction = removalFunction;
+    }
+
+    @Override
+    public V get(Object key) {
+        V value = super.get(key);
+        if (value != null) {
+            statsCounter.recordHits(1);
+        } else {
+            statsCounter.recordMisses(1);
+        }
+        return value;
+    }
+
+    public CacheStats stats() {
+        return statsCounter.snapshot();
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+        if (removalFunction.remove(this, eldest)) {
+            statsCounter.recordEviction(1);
+            return true;
+        }
+        return false;
+    }
+}
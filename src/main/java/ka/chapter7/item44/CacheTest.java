@@ -20,16 +20,3 @@ public class CacheTest {
 
     }
 }
-
-class CacheHashMap<K, V> extends LinkedHashMap<K, V> {
-    private static final int MAX_ENTRIES = 100;
-    @Override
-    protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
-        return size() > MAX_ENTRIES;
-    }
-}
-
-@FunctionalInterface
-interface EldestEntryRemovalFunction<K, V> {
-    boolean remove(Map<K, V> map, Map.Entry<K, V> eldest);
-}
\ No newline at end of file
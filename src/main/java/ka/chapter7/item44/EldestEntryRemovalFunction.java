@@ -0,0 +1,8 @@
+package ka.chapter7.item44;
+
+import java.util.Map;
+
+@FunctionalInterface
+public interface EldestEntryRemovalFunction<K, V> {
+    boolean remove(Map<K, V> map, Map.Entry<K, V> eldest);
+}
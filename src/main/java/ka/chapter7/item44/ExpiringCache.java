@@ -0,0 +1,229 @@
+package ka.chapter7.item44;
+
+import ka.chapter2.item7.cache.CacheStats;
+import ka.chapter2.item7.cache.StatsCounter;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.LongSupplier;
+import java.util.function.ToIntBiFunction;
+
+public class ExpiringCache<K, V> {
+    private static final long DISABLED = -1;
+
+    private final Map<K, TimerWheel.Node<K>> nodes = new HashMap<>();
+    private final CacheHashMap<K, V> data;
+    private final TimerWheel<K> wheel;
+
+    private final long maximumWeight;
+    private final ToIntBiFunction<? super K, ? super V> weigher;
+    private final long expireAfterWriteNanos;
+    private final long expireAfterAccessNanos;
+    private final LongSupplier ticker;
+
+    private final StatsCounter statsCounter = new StatsCounter();
+
+    private long weightedSize;
+
+    public static class Builder<K, V> {
+        private long maximumWeight = Long.MAX_VALUE;
+        private ToIntBiFunction<? super K, ? super V> weigher = (key, value) -> 1;
+        private long expireAfterWriteNanos = DISABLED;
+        private long expireAfterAccessNanos = DISABLED;
+        private EldestEntryRemovalFunction<K, V> removalFunction = (map, eldest) -> false;
+        private LongSupplier ticker = System::nanoTime;
+
+        public Builder<K, V> maximumWeight(long maximumWeight) {
+            if (maximumWeight < 0) {
+                throw new IllegalArgumentException("maximumWeight < 0");
+            }
+            this.maximumWeight = maximumWeight;
+            return this;
+        }
+
+        public Builder<K, V> weigher(ToIntBiFunction<? super K, ? super V> weigher) {
+            this.weigher = Objects.requireNonNull(weigher);
+            return this;
+        }
+
+        public Builder<K, V> expireAfterWrite(Duration duration) {
+            this.expireAfterWriteNanos = requirePositive(duration);
+            return this;
+        }
+
+        public Builder<K, V> expireAfterAccess(Duration duration) {
+            this.expireAfterAccessNanos = requirePositive(duration);
+            return this;
+        }
+
+        public Builder<K, V> removalFunction(EldestEntryRemovalFunction<K, V> removalFunction) {
+            this.removalFunction = Objects.requireNonNull(removalFunction);
+            return this;
+        }
+
+        public Builder<K, V> ticker(LongSupplier ticker) {
+            this.ticker = Objects.requireNonNull(ticker);
+            return this;
+        }
+
+        public ExpiringCache<K, V> build() {
+            return new ExpiringCache<>(this);
+        }
+
+        private static long requirePositive(Duration duration) {
+            if (duration.isNegative() || duration.isZero()) {
+                throw new IllegalArgumentException("duration must be positive");
+            }
+            return duration.toNanos();
+        }
+    }
+
+    private ExpiringCache(Builder<K, V> builder) {
+        this.maximumWeight = builder.maximumWeight;
+        this.weigher = builder.weigher;
+        this.expireAfterWriteNanos = builder.expireAfterWriteNanos;
+        this.expireAfterAccessNanos = builder.expireAfterAccessNanos;
+        this.ticker = builder.ticker;
+
+        // 접근 순서로 정렬해 가장 오래 사용되지 않은 항목부터 제거
+        EldestEntryRemovalFunction<K, V> removalFunction = builder.removalFunction;
+        this.data = new CacheHashMap<>(true, (map, eldest) -> {
+            if (removalFunction.remove(map, eldest)) {
+                statsCounter.recordEviction(discard(eldest.getKey()));
+                return true;
+            }
+            return false;
+        });
+
+        long maxDuration = Math.max(expireAfterWriteNanos, expireAfterAccessNanos);
+        this.wheel = maxDuration == DISABLED ? null : new TimerWheel<>(maxDuration, ticker.getAsLong());
+    }
+
+    public V get(K key) {
+        long now = ticker.getAsLong();
+        expire(now);
+
+        TimerWheel.Node<K> node = nodes.get(key);
+        if (node != null && wheel != null && TimerWheel.isExpired(node, now)) {
+            // 아직 다 지나지 않은 칸에 있어서 바퀴가 치우지 않은 항목
+            data.remove(key);
+            statsCounter.recordEviction(discard(key));
+            node = null;
+        }
+        if (node == null) {
+            statsCounter.recordMisses(1);
+            return null;
+        }
+
+        statsCounter.recordHits(1);
+        V value = data.get(key);
+        if (expireAfterAccessNanos != DISABLED) {
+            schedule(node, now);
+        }
+        return value;
+    }
+
+    public V put(K key, V value) {
+        long now = ticker.getAsLong();
+        expire(now);
+
+        int weight = weigher.applyAsInt(key, value);
+        if (weight < 0) {
+            throw new IllegalArgumentException("weight < 0");
+        }
+
+        TimerWheel.Node<K> node = nodes.get(key);
+        if (node == null) {
+            node = new TimerWheel.Node<>(key);
+            nodes.put(key, node);
+        } else {
+            weightedSize -= node.weight;
+        }
+        node.weight = weight;
+        weightedSize += weight;
+
+        V old = data.put(key, value);
+        // 제거 함수가 방금 넣은 항목을 바로 제거했을 수 있음
+        if (nodes.get(key) == node) {
+            writeTime(node, now);
+        }
+
+        evictByWeight();
+        return old;
+    }
+
+    public V remove(K key) {
+        expire(ticker.getAsLong());
+
+        V value = data.remove(key);
+        discard(key);
+        return value;
+    }
+
+    public int size() {
+        return data.size();
+    }
+
+    public long weightedSize() {
+        return weightedSize;
+    }
+
+    public CacheStats stats() {
+        return statsCounter.snapshot();
+    }
+
+    public void cleanUp() {
+        expire(ticker.getAsLong());
+    }
+
+    private void expire(long now) {
+        if (wheel != null) {
+            wheel.advance(now, key -> {
+                data.remove(key);
+                statsCounter.recordEviction(discard(key));
+            });
+        }
+    }
+
+    private void evictByWeight() {
+        while (weightedSize > maximumWeight && !data.isEmpty()) {
+            K eldestKey = data.keySet().iterator().next();
+            data.remove(eldestKey);
+            statsCounter.recordEviction(discard(eldestKey));
+        }
+    }
+
+    private long discard(K key) {
+        TimerWheel.Node<K> node = nodes.remove(key);
+        if (node == null) {
+            return 0;
+        }
+        weightedSize -= node.weight;
+        if (wheel != null) {
+            wheel.deschedule(node);
+        }
+        return node.weight;
+    }
+
+    private void writeTime(TimerWheel.Node<K> node, long now) {
+        if (wheel == null) {
+            return;
+        }
+        node.writeTime = now;
+        schedule(node, now);
+    }
+
+    private void schedule(TimerWheel.Node<K> node, long now) {
+        // 쓰기 기준 만료 시각과 접근 기준 만료 시각 중 빠른 쪽으로 예약
+        long deadline = Long.MAX_VALUE;
+        if (expireAfterWriteNanos != DISABLED) {
+            deadline = node.writeTime + expireAfterWriteNanos;
+        }
+        if (expireAfterAccessNanos != DISABLED) {
+            deadline = Math.min(deadline, now + expireAfterAccessNanos);
+        }
+        wheel.schedule(node, deadline);
+    }
+}
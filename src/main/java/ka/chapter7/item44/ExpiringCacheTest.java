@@ -0,0 +1,84 @@
+package ka.chapter7.item44;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ExpiringCacheTest {
+    @Test
+    void maximumWeightTest() {
+        // 문자열 길이(byte 수)를 무게로 사용해 전체 크기를 제한
+        ExpiringCache<String, String> cache = new ExpiringCache.Builder<String, String>()
+                .maximumWeight(10)
+                .weigher((key, value) -> value.length())
+                .build();
+
+        cache.put("a", "12345");
+        cache.put("b", "1234");
+        cache.get("a");
+        cache.put("c", "123");
+
+        // a를 최근에 사용했으므로 b가 먼저 제거됨
+        assertNull(cache.get("b"));
+        assertTrue(cache.get("a") != null);
+        assertTrue(cache.weightedSize() == 8);
+    }
+
+    @Test
+    void expireAfterWriteTest() {
+        AtomicLong ticker = new AtomicLong();
+        ExpiringCache<String, Integer> cache = new ExpiringCache.Builder<String, Integer>()
+                .expireAfterWrite(Duration.ofSeconds(10))
+                .ticker(ticker::get)
+                .build();
+
+        cache.put("one", 1);
+        ticker.addAndGet(Duration.ofSeconds(5).toNanos());
+        assertTrue(cache.get("one") == 1);
+
+        // 조회와 상관없이 쓰기 후 10초가 지나면 만료
+        ticker.addAndGet(Duration.ofSeconds(5).toNanos());
+        assertNull(cache.get("one"));
+        assertTrue(cache.size() == 0);
+    }
+
+    @Test
+    void expireAfterAccessTest() {
+        AtomicLong ticker = new AtomicLong();
+        ExpiringCache<String, Integer> cache = new ExpiringCache.Builder<String, Integer>()
+                .expireAfterAccess(Duration.ofSeconds(10))
+                .ticker(ticker::get)
+                .build();
+
+        cache.put("one", 1);
+        cache.put("two", 2);
+        for (int i = 0; i < 5; i++) {
+            ticker.addAndGet(Duration.ofSeconds(5).toNanos());
+            cache.get("one");
+        }
+
+        // 계속 조회된 one은 남고, 한 번도 조회되지 않은 two는 만료
+        cache.cleanUp();
+        assertTrue(cache.size() == 1);
+        assertTrue(cache.get("one") == 1);
+    }
+
+    @Test
+    void removalFunctionTest() {
+        ExpiringCache<Integer, Integer> cache = new ExpiringCache.Builder<Integer, Integer>()
+                .removalFunction((map, eldest) -> map.size() > 3)
+                .build();
+
+        for (int i = 0; i < 10; i++) {
+            cache.put(i, i);
+        }
+
+        assertTrue(cache.size() == 3);
+        assertTrue(cache.weightedSize() == 3);
+        assertNull(cache.get(0));
+    }
+}
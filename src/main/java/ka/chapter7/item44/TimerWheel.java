@@ -0,0 +1,88 @@
+package ka.chapter7.item44;
+
+import java.util.function.Consumer;
+
+class TimerWheel<K> {
+    private static final int WHEEL_SIZE = 64;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    // 가장 긴 만료 시간이 바퀴의 절반 안에 들어오도록 한 칸의 크기를 정함
+    private static final int SPAN = WHEEL_SIZE / 2;
+
+    private final Node<K>[] buckets;
+    private final long tickNanos;
+    private long currentTick;
+
+    @SuppressWarnings("unchecked")
+    TimerWheel(long maxDurationNanos, long now) {
+        this.tickNanos = Math.max(1, (maxDurationNanos + SPAN - 1) / SPAN);
+        this.buckets = (Node<K>[]) new Node<?>[WHEEL_SIZE];
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            buckets[i] = new Node<>(null);
+            buckets[i].prev = buckets[i];
+            buckets[i].next = buckets[i];
+        }
+        this.currentTick = Math.floorDiv(now, tickNanos);
+    }
+
+    void schedule(Node<K> node, long deadline) {
+        unlink(node);
+        node.deadline = deadline;
+
+        Node<K> head = buckets[(int) (Math.floorDiv(deadline, tickNanos) & WHEEL_MASK)];
+        node.prev = head.prev;
+        node.next = head;
+        head.prev.next = node;
+        head.prev = node;
+    }
+
+    void deschedule(Node<K> node) {
+        unlink(node);
+    }
+
+    // now가 속한 칸은 아직 다 지나지 않았으므로 훑지 않음. 그 칸에서 이미 만료된 항목은 isExpired로 조회할 때 걸러냄
+    void advance(long now, Consumer<K> onExpire) {
+        long targetTick = Math.floorDiv(now, tickNanos);
+
+        // 다 지나간 칸만 칸마다 한 번씩 훑으므로 호출마다 최대 WHEEL_SIZE 칸, 평균적으로는 O(1)
+        long fromTick = Math.max(currentTick, targetTick - WHEEL_SIZE);
+        for (long tick = fromTick; tick < targetTick; tick++) {
+            Node<K> head = buckets[(int) (tick & WHEEL_MASK)];
+            Node<K> node = head.next;
+            while (node != head) {
+                Node<K> next = node.next;
+                // 같은 칸에 다음 바퀴의 항목이 있을 수 있음
+                if (node.deadline <= now) {
+                    unlink(node);
+                    onExpire.accept(node.key);
+                }
+                node = next;
+            }
+        }
+        currentTick = Math.max(currentTick, targetTick);
+    }
+
+    static boolean isExpired(Node<?> node, long now) {
+        return node.deadline <= now;
+    }
+
+    private void unlink(Node<K> node) {
+        if (node.next != null) {
+            node.prev.next = node.next;
+            node.next.prev = node.prev;
+            node.prev = null;
+            node.next = null;
+        }
+    }
+
+    static class Node<K> {
+        final K key;
+        int weight;
+        long writeTime;
+        long deadline;
+        Node<K> prev, next;
+
+        Node(K key) {
+            this.key = key;
+        }
+    }
+}